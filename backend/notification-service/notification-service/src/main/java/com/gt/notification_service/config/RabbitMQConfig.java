@@ -1,17 +1,148 @@
 package com.gt.notification_service.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class RabbitMQConfig {
 
+    // Queues consumed by this service; each gets its own retry tiers and dead-letter queue
+    public static final List<String> CONSUMED_QUEUES = List.of(
+            "pass.created.queue", "pass.approved.queue", "pass.rejected.queue",
+            "pass.expired.queue", "user.created.queue", "password.reset.queue");
+    public static final String DEAD_LETTER_EXCHANGE = "notification.dlx";
+    public static final String RETRY_ATTEMPT_HEADER = "x-retry-attempt";
+
+    public static String retryQueueName(String queue, int tier) {
+        return queue + ".retry." + tier;
+    }
+
+    public static String deadLetterQueueName(String queue) {
+        return queue + ".dlq";
+    }
+
+    /**
+     * Retry and dead-letter topology for every consumed queue.
+     * A retry queue holds a message for its tier's TTL and then dead-letters it, through the
+     * default exchange, back onto the original queue. Messages that exhaust all tiers, or can
+     * never be processed, are parked in the queue's DLQ, bound to the dead-letter exchange
+     * under the original queue name.
+     */
+    @Bean
+    public Declarables retryTopology(RetryPolicy retryPolicy) {
+        DirectExchange deadLetterExchange = new DirectExchange(DEAD_LETTER_EXCHANGE, true, false);
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(deadLetterExchange);
+        for (String queue : CONSUMED_QUEUES) {
+            List<Long> tiers = retryPolicy.getBackoffTiersMs();
+            for (int tier = 0; tier < tiers.size(); tier++) {
+                declarables.add(QueueBuilder.durable(retryQueueName(queue, tier))
+                        .ttl(tiers.get(tier).intValue())
+                        .deadLetterExchange("")
+                        .deadLetterRoutingKey(queue)
+                        .build());
+            }
+            Queue deadLetterQueue = QueueBuilder.durable(deadLetterQueueName(queue)).build();
+            declarables.add(deadLetterQueue);
+            declarables.add(BindingBuilder.bind(deadLetterQueue).to(deadLetterExchange).with(queue));
+        }
+        return new Declarables(declarables);
+    }
+
     // This bean tells RabbitMQ how to convert the JSON message back into a Java Object.
     // It's crucial for deserializing the PassApprovedEvent.
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
     }
-}
\ No newline at end of file
+
+    /**
+     * Listener container factory used by every @RabbitListener.
+     * Each listener is tuned by its id through app.listeners.&lt;id&gt;.concurrency, .max-concurrency
+     * and .prefetch, falling back to app.listeners.default.*. Optionally runs consumers on virtual threads.
+     * Per-queue time-in-queue ("rabbit.listener.lag") and handling time ("rabbit.listener.processing")
+     * are recorded for every message.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${app.listeners.virtual-threads:false}") boolean virtualThreads) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+
+        if (virtualThreads) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-listener-"));
+        }
+
+        factory.setContainerCustomizer(container -> applyListenerSettings(container, environment));
+
+        factory.setAfterReceivePostProcessors(message -> {
+            Date publishedAt = message.getMessageProperties().getTimestamp();
+            if (publishedAt != null) {
+                meterRegistry.timer("rabbit.listener.lag", "queue", queueOf(message))
+                        .record(Math.max(0, System.currentTimeMillis() - publishedAt.getTime()), TimeUnit.MILLISECONDS);
+            }
+            return message;
+        });
+
+        factory.setAdviceChain((MethodInterceptor) invocation -> {
+            String queue = invocation.getArguments().length > 1 && invocation.getArguments()[1] instanceof Message message
+                    ? queueOf(message)
+                    : "batch";
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                meterRegistry.timer("rabbit.listener.processing", "queue", queue)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+        return factory;
+    }
+
+    private static void applyListenerSettings(SimpleMessageListenerContainer container, Environment environment) {
+        String prefix = "app.listeners." + container.getListenerId() + ".";
+        int concurrency = environment.getProperty(prefix + "concurrency", Integer.class,
+                environment.getProperty("app.listeners.default.concurrency", Integer.class, 1));
+        int maxConcurrency = environment.getProperty(prefix + "max-concurrency", Integer.class,
+                environment.getProperty("app.listeners.default.max-concurrency", Integer.class, concurrency));
+        int prefetch = environment.getProperty(prefix + "prefetch", Integer.class,
+                environment.getProperty("app.listeners.default.prefetch", Integer.class, 10));
+
+        // The maximum must be raised before the minimum so the container never sees min > max
+        container.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        container.setConcurrentConsumers(concurrency);
+        container.setPrefetchCount(prefetch);
+    }
+
+    private static String queueOf(Message message) {
+        String queue = message.getMessageProperties().getConsumerQueue();
+        return queue != null ? queue : "unknown";
+    }
+}
@@ -2,8 +2,11 @@ package com.gt.notification_service.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.listener.api.RabbitListenerErrorHandler;
 import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.amqp.support.converter.MessageConversionException;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -11,20 +14,58 @@ public class RabbitMQErrorHandler implements RabbitListenerErrorHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(RabbitMQErrorHandler.class);
 
+    private final RabbitTemplate rabbitTemplate;
+    private final RetryPolicy retryPolicy;
+
+    public RabbitMQErrorHandler(RabbitTemplate rabbitTemplate, RetryPolicy retryPolicy) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Moves a failed message off its queue instead of re-throwing, which would requeue it
+     * at the head of the queue and redeliver it immediately in a hot loop.
+     * Transient failures go to the next delayed retry tier; messages that have used every tier,
+     * or cannot be deserialised at all, are parked in the queue's dead-letter queue.
+     */
     @Override
     public Object handleError(org.springframework.amqp.core.Message amqpMessage,
                               org.springframework.messaging.Message<?> message,
                               ListenerExecutionFailedException exception) throws Exception {
+        MessageProperties properties = amqpMessage.getMessageProperties();
+        String queue = properties.getConsumerQueue();
+        if (queue == null || !RabbitMQConfig.CONSUMED_QUEUES.contains(queue)) {
+            // No retry topology for this queue; fall back to rejecting the message
+            throw exception;
+        }
 
-        logger.error("!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!");
-        logger.error("RABBITMQ LISTENER FAILED");
-        logger.error("This is likely due to a JSON deserialization error (DTO mismatch).");
-        logger.error("Cause: {}", exception.getCause().getMessage());
-        logger.error("Failed Message Payload: {}", new String(amqpMessage.getBody()));
-        logger.error("!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!");
+        Integer previousAttempts = properties.getHeader(RabbitMQConfig.RETRY_ATTEMPT_HEADER);
+        int attempt = previousAttempts != null ? previousAttempts : 0;
+        boolean poison = isUnconvertible(exception);
+        String cause = exception.getCause() != null ? exception.getCause().getMessage() : exception.getMessage();
+
+        if (!poison && attempt < retryPolicy.getTierCount()) {
+            properties.setHeader(RabbitMQConfig.RETRY_ATTEMPT_HEADER, attempt + 1);
+            rabbitTemplate.send("", RabbitMQConfig.retryQueueName(queue, attempt), amqpMessage);
+            logger.warn("Listener on {} failed (attempt {}); retrying after {} ms. Cause: {}",
+                    queue, attempt + 1, retryPolicy.getBackoffTiersMs().get(attempt), cause);
+        } else {
+            rabbitTemplate.send(RabbitMQConfig.DEAD_LETTER_EXCHANGE, queue, amqpMessage);
+            logger.error("Listener on {} failed {}; message moved to {}. Cause: {}. Payload: {}",
+                    queue, poison ? "to deserialise the message" : "after " + (attempt + 1) + " attempts",
+                    RabbitMQConfig.deadLetterQueueName(queue), cause, new String(amqpMessage.getBody()));
+        }
+        // Returning normally acknowledges the original delivery
+        return null;
+    }
 
-        // Re-throwing the exception will cause the message to be rejected.
-        // Depending on your broker config, it might go to a Dead Letter Queue.
-        throw exception;
+    private static boolean isUnconvertible(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MessageConversionException
+                    || cause instanceof org.springframework.messaging.converter.MessageConversionException) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.gt.notification_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Backoff settings shared by the two retry paths: listener failures are re-delivered through
+ * one delayed retry queue per backoff tier, and failed SMTP sends are re-driven by the
+ * FailedEmailSweeper, waiting the tier matching the number of attempts made so far.
+ */
+@Component
+public class RetryPolicy {
+
+    private final List<Long> backoffMs;
+    private final int maxSendAttempts;
+
+    public RetryPolicy(@Value("${app.notifications.retry.backoff-ms:10000,60000,600000}") List<Long> backoffMs,
+                       @Value("${app.notifications.retry.max-send-attempts:5}") int maxSendAttempts) {
+        this.backoffMs = List.copyOf(backoffMs);
+        this.maxSendAttempts = maxSendAttempts;
+    }
+
+    public List<Long> getBackoffTiersMs() {
+        return backoffMs;
+    }
+
+    public int getTierCount() {
+        return backoffMs.size();
+    }
+
+    public int getMaxSendAttempts() {
+        return maxSendAttempts;
+    }
+
+    /**
+     * @return How long to wait before the next attempt, given the attempts made so far.
+     * Attempts beyond the last tier keep using the last (longest) tier.
+     */
+    public Duration delayAfter(int attempts) {
+        int tier = Math.min(Math.max(attempts, 1), backoffMs.size()) - 1;
+        return Duration.ofMillis(backoffMs.get(tier));
+    }
+}
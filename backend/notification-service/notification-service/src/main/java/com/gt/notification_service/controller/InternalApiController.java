@@ -1,43 +1,97 @@
 package com.gt.notification_service.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gt.notification_service.dto.EmailAuditLogResponse;
-import com.gt.notification_service.model.EmailAuditLog;
 import com.gt.notification_service.repository.EmailAuditLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/internal")
 public class InternalApiController {
 
     private final EmailAuditLogRepository emailAuditLogRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxPassIds;
+    private final int maxLogsPerPass;
 
-    public InternalApiController(EmailAuditLogRepository emailAuditLogRepository) {
+    public InternalApiController(EmailAuditLogRepository emailAuditLogRepository,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.internal-api.email-logs.max-pass-ids:1000}") int maxPassIds,
+                                 @Value("${app.internal-api.email-logs.max-per-pass:50}") int maxLogsPerPass) {
         this.emailAuditLogRepository = emailAuditLogRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxPassIds = maxPassIds;
+        this.maxLogsPerPass = maxLogsPerPass;
     }
 
+    /**
+     * Returns the most recent email logs of each requested pass (newest first, without bodies).
+     * Rows are streamed from the database straight into the JSON array, so large requests never
+     * hold the whole result in memory.
+     */
     @PostMapping("/email-logs/by-pass-ids")
-    public ResponseEntity<List<EmailAuditLogResponse>> getEmailLogsForPasses(@RequestBody List<Long> passIds) {
+    public ResponseEntity<StreamingResponseBody> getEmailLogsForPasses(
+            @RequestBody List<Long> passIds,
+            @RequestParam(defaultValue = "10") int limitPerPass) {
         // We will add security later. For now, it's open for inter-service communication.
+        if (passIds.size() > maxPassIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxPassIds + " pass IDs can be requested at once.");
+        }
+        Set<Long> uniquePassIds = new LinkedHashSet<>(passIds);
+        int limit = Math.min(Math.max(limitPerPass, 1), maxLogsPerPass);
 
-        List<EmailAuditLog> logs = emailAuditLogRepository.findByAssociatedPassIdIn(passIds);
-
-        List<EmailAuditLogResponse> response = logs.stream()
-                .map(log -> new EmailAuditLogResponse(
-                        log.getId(),
-                        log.getAssociatedPassId(),
-                        log.getRecipientAddress(),
-                        log.getSubject(),
-                        log.getStatus().name(),
-                        log.getCreatedAt(),
-                        log.getProcessedAt(),
-                        log.getFailureReason()
-                ))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(response);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                if (!uniquePassIds.isEmpty()) {
+                    readOnlyTransaction.executeWithoutResult(status -> {
+                        try (Stream<EmailAuditLogRepository.EmailLogSummary> logs =
+                                     emailAuditLogRepository.streamRecentByPassIds(uniquePassIds, limit)) {
+                            logs.forEach(log -> writeLog(generator, log));
+                        }
+                    });
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
-}
\ No newline at end of file
+
+    private void writeLog(JsonGenerator generator, EmailAuditLogRepository.EmailLogSummary log) {
+        try {
+            objectMapper.writeValue(generator, new EmailAuditLogResponse(
+                    log.getId(),
+                    log.getAssociatedPassId(),
+                    log.getRecipientAddress(),
+                    log.getSubject(),
+                    log.getStatus(),
+                    log.getCreatedAt(),
+                    log.getProcessedAt(),
+                    log.getFailureReason()
+            ));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
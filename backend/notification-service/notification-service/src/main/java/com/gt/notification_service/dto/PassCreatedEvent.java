@@ -1,4 +1,26 @@
 package com.gt.notification_service.dto;
 
-public class PassCreatedEvent {
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// THIS MUST MATCH THE DTO IN THE OTHER SERVICE
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PassCreatedEvent implements Serializable {
+    private Long passId;
+    private Long tenantId;
+    private String visitorName;
+    private String visitorEmail;
+    private String visitorPhone;
+    private String purpose;
+    private LocalDateTime visitDateTime;
+    private String passCode;
+    private String employeeEmail;
+    private String employeeName;
+    private String tenantName;
 }
@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -16,5 +17,6 @@ public class PassExpiredEvent implements Serializable {
     private LocalDateTime visitDateTime;
     private String employeeEmail;
     private String tenantAdminEmail;
+    private List<String> tenantAdminEmails;
     private Long tenantId;
 }
\ No newline at end of file
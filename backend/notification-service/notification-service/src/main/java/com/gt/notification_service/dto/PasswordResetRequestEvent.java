@@ -1,4 +1,18 @@
 package com.gt.notification_service.dto;
 
-public class PasswordResetRequestEvent {
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// THIS MUST MATCH THE DTO IN THE OTHER SERVICE
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordResetRequestEvent implements Serializable {
+    private String recipientName;
+    private String recipientEmail;
+    private String resetToken;
+    private String frontendResetUrl;
 }
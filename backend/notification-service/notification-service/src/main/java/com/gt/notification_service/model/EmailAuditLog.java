@@ -2,11 +2,16 @@ package com.gt.notification_service.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "email_audit_logs")
+@DynamicUpdate // Status updates do not rewrite the stored body
+@Table(name = "email_audit_logs", indexes = {
+        @Index(name = "idx_email_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_email_pass_created_at", columnList = "associated_pass_id, created_at")
+})
 public class EmailAuditLog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,7 +22,10 @@ public class EmailAuditLog {
     private String subject;
     @Lob
     @Column(columnDefinition = "TEXT")
-    private String body;
+    private String body; // Plain-text body of rows written before bodies were compressed
+    @Lob
+    @Column(columnDefinition = "MEDIUMBLOB")
+    private byte[] bodyCompressed; // GZIP-compressed body; see EmailBodyCodec
     @Enumerated(EnumType.STRING)
     private EmailStatus status;
     @Lob
@@ -25,6 +33,8 @@ public class EmailAuditLog {
     private String failureReason;
     private LocalDateTime createdAt;
     private LocalDateTime processedAt;
+    private int attempts; // Number of send attempts made so far
+    private LocalDateTime nextAttemptAt; // When a FAILED email becomes due for another attempt
 }
 
 // Create an Enum EmailStatus.java: PENDING, SENT, FAILED
\ No newline at end of file
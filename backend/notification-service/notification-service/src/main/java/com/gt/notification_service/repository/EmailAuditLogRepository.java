@@ -1,10 +1,47 @@
 package com.gt.notification_service.repository;
 
 import com.gt.notification_service.model.EmailAuditLog;
+import com.gt.notification_service.model.EmailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface EmailAuditLogRepository extends JpaRepository<EmailAuditLog, Long> {
-    List<EmailAuditLog> findByAssociatedPassIdIn(List<Long> passIds);
-}
\ No newline at end of file
+    // FOR THE INTERNAL API: the most recent logs of each pass, without the body, streamed row by row
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(value = "SELECT id, associated_pass_id AS associatedPassId, recipient_address AS recipientAddress, subject, status, " +
+            "created_at AS createdAt, processed_at AS processedAt, failure_reason AS failureReason FROM (" +
+            "SELECT e.id, e.associated_pass_id, e.recipient_address, e.subject, e.status, e.created_at, e.processed_at, e.failure_reason, " +
+            "ROW_NUMBER() OVER (PARTITION BY e.associated_pass_id ORDER BY e.created_at DESC, e.id DESC) AS row_num " +
+            "FROM email_audit_logs e WHERE e.associated_pass_id IN (:passIds)) ranked " +
+            "WHERE ranked.row_num <= :limitPerPass ORDER BY associatedPassId, createdAt DESC",
+            nativeQuery = true)
+    Stream<EmailLogSummary> streamRecentByPassIds(Collection<Long> passIds, int limitPerPass);
+
+    interface EmailLogSummary {
+        Long getId();
+        Long getAssociatedPassId();
+        String getRecipientAddress();
+        String getSubject();
+        String getStatus();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getProcessedAt();
+        String getFailureReason();
+    }
+
+    // FOR THE RETRY SWEEPER: rows locked by another instance are skipped rather than waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EmailAuditLog e WHERE e.status = :status AND e.attempts < :maxAttempts AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<EmailAuditLog> findDueForRetry(EmailStatus status, int maxAttempts, LocalDateTime now, Pageable pageable);
+}
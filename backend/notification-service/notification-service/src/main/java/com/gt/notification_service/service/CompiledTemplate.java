@@ -0,0 +1,85 @@
+package com.gt.notification_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template parsed once into alternating literal text and {{placeholder}} names.
+ * Rendering is a single pass that appends into one pre-sized StringBuilder,
+ * with no parsing, regex or intermediate strings per render.
+ */
+final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int ESTIMATED_VALUE_LENGTH = 24;
+
+    private final String[] literals; // always one more literal than placeholders
+    private final String[] placeholders;
+    private final int estimatedLength;
+    private final boolean escapeHtml;
+
+    private CompiledTemplate(String[] literals, String[] placeholders, boolean escapeHtml) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.escapeHtml = escapeHtml;
+        int length = placeholders.length * ESTIMATED_VALUE_LENGTH;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.estimatedLength = length;
+    }
+
+    static CompiledTemplate compile(String source, boolean escapeHtml) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(source.substring(open + OPEN.length(), close).trim());
+            position = close + CLOSE.length();
+        }
+        return new CompiledTemplate(literals.toArray(String[]::new), placeholders.toArray(String[]::new), escapeHtml);
+    }
+
+    /**
+     * Renders the template. Missing values render as an empty string.
+     */
+    String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder(estimatedLength);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            Object value = model.get(placeholders[i]);
+            if (value != null) {
+                if (escapeHtml) {
+                    appendEscaped(out, value.toString());
+                } else {
+                    out.append(value);
+                }
+            }
+        }
+        out.append(literals[placeholders.length]);
+        return out.toString();
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
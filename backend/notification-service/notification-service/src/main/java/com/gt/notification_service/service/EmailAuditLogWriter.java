@@ -0,0 +1,45 @@
+package com.gt.notification_service.service;
+
+import com.gt.notification_service.model.EmailAuditLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Types;
+import java.util.List;
+
+@Service
+public class EmailAuditLogWriter {
+
+    private static final String INSERT_EMAIL_LOG_SQL =
+            "INSERT INTO email_audit_logs (correlation_id, associated_pass_id, recipient_address, subject, body_compressed, " +
+            "status, failure_reason, created_at, processed_at, attempts, next_attempt_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailAuditLogWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts finished email log entries (already SENT or FAILED) as a single JDBC batch.
+     * The body is stored GZIP-compressed.
+     */
+    public void insertAll(List<EmailAuditLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EMAIL_LOG_SQL, logs, logs.size(), (ps, log) -> {
+            ps.setString(1, log.getCorrelationId());
+            ps.setObject(2, log.getAssociatedPassId(), Types.BIGINT);
+            ps.setString(3, log.getRecipientAddress());
+            ps.setString(4, log.getSubject());
+            ps.setBytes(5, EmailBodyCodec.compress(log.getBody()));
+            ps.setString(6, log.getStatus().name());
+            ps.setString(7, log.getFailureReason());
+            ps.setObject(8, log.getCreatedAt());
+            ps.setObject(9, log.getProcessedAt());
+            ps.setInt(10, log.getAttempts());
+            ps.setObject(11, log.getNextAttemptAt());
+        });
+    }
+}
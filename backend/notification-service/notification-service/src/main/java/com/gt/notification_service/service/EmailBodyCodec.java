@@ -0,0 +1,52 @@
+package com.gt.notification_service.service;
+
+import com.gt.notification_service.model.EmailAuditLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GZIP-compresses email bodies for storage in email_audit_logs.
+ * Rendered bodies are repetitive text that typically shrinks to a fraction of its size.
+ */
+public final class EmailBodyCodec {
+
+    private EmailBodyCodec() {
+    }
+
+    public static byte[] compress(String body) {
+        if (body == null) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static String decompress(byte[] compressed) {
+        if (compressed == null) {
+            return null;
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The body of a log entry, whether it was stored compressed or, for older rows, as plain text.
+     */
+    public static String bodyOf(EmailAuditLog log) {
+        return log.getBodyCompressed() != null ? decompress(log.getBodyCompressed()) : log.getBody();
+    }
+}
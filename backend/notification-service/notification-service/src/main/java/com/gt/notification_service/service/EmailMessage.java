@@ -0,0 +1,12 @@
+package com.gt.notification_service.service;
+
+/**
+ * A single outgoing email. When htmlBody is set, the email is sent as multipart/alternative
+ * with body as the plain-text part.
+ */
+public record EmailMessage(String to, String subject, String body, String htmlBody) {
+
+    public EmailMessage(String to, String subject, String body) {
+        this(to, subject, body, null);
+    }
+}
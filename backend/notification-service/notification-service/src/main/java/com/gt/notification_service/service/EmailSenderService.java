@@ -1,24 +1,31 @@
 package com.gt.notification_service.service;
 
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class EmailSenderService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailSenderService.class);
 
-    private final JavaMailSender javaMailSender;
+    private final SmtpConnectionPool connectionPool;
+    private final SendRateLimiter rateLimiter;
     private final String fromEmail;
 
-    public EmailSenderService(JavaMailSender javaMailSender,
+    public EmailSenderService(SmtpConnectionPool connectionPool,
+                              SendRateLimiter rateLimiter,
                               @Value("${spring.mail.username}") String fromEmail) {
-        this.javaMailSender = javaMailSender;
+        this.connectionPool = connectionPool;
+        this.rateLimiter = rateLimiter;
         this.fromEmail = fromEmail;
     }
 
@@ -31,19 +38,73 @@ public class EmailSenderService {
      * @return true if the email was sent successfully, false otherwise.
      */
     public boolean sendEmail(String to, String subject, String body) {
+        return sendEmails(List.of(new EmailMessage(to, subject, body))).get(0) == SendOutcome.SENT;
+    }
+
+    /**
+     * Sends several emails over one pooled SMTP connection, subject to the send-rate limit.
+     * If the connection breaks, it is discarded and the remaining emails continue on a fresh one.
+     * If no connection becomes free in time, this and the remaining emails are returned as
+     * DEFERRED without being attempted.
+     *
+     * @return One outcome per email, in order.
+     */
+    public List<SendOutcome> sendEmails(List<EmailMessage> emails) {
+        List<SendOutcome> results = new ArrayList<>(emails.size());
+        SmtpConnectionPool.PooledTransport pooled = null;
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-
-            javaMailSender.send(message);
-            logger.info("Successfully sent email to {}", to);
-            return true;
-        } catch (MailException e) {
-            logger.error("Failed to send email to {}. Error: {}", to, e.getMessage());
-            return false;
+            for (EmailMessage email : emails) {
+                try {
+                    // Wait for the rate limit before taking a connection, so waiting senders do not hold one
+                    rateLimiter.acquire();
+                    if (pooled == null) {
+                        pooled = connectionPool.borrow();
+                    }
+                    MimeMessage message = buildMessage(email);
+                    pooled.transport().sendMessage(message, message.getAllRecipients());
+                    pooled.recordSent();
+                    logger.info("Successfully sent email to {}", email.to());
+                    results.add(SendOutcome.SENT);
+                } catch (SmtpConnectionPool.PoolExhaustedException e) {
+                    logger.warn("No SMTP connection free; deferring {} emails.", emails.size() - results.size());
+                    break;
+                } catch (MessagingException e) {
+                    logger.error("Failed to send email to {}. Error: {}", email.to(), e.getMessage());
+                    results.add(SendOutcome.FAILED);
+                    if (pooled != null) {
+                        connectionPool.release(pooled, false);
+                        pooled = null;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while sending emails; {} not sent.", emails.size() - results.size());
+        } finally {
+            if (pooled != null) {
+                connectionPool.release(pooled, true);
+            }
+        }
+        while (results.size() < emails.size()) {
+            results.add(SendOutcome.DEFERRED);
+        }
+        return results;
+    }
+
+    private MimeMessage buildMessage(EmailMessage email) throws MessagingException {
+        MimeMessage message = new MimeMessage(connectionPool.getSession());
+        boolean multipart = email.htmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, multipart, StandardCharsets.UTF_8.name());
+        helper.setFrom(fromEmail);
+        helper.setTo(email.to());
+        helper.setSubject(email.subject());
+        if (multipart) {
+            // multipart/alternative: clients show the HTML part and fall back to the text part
+            helper.setText(email.body(), email.htmlBody());
+        } else {
+            helper.setText(email.body());
         }
+        message.saveChanges();
+        return message;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package com.gt.notification_service.service;
+
+import com.gt.notification_service.config.RetryPolicy;
+import com.gt.notification_service.model.EmailAuditLog;
+import com.gt.notification_service.model.EmailStatus;
+import com.gt.notification_service.repository.EmailAuditLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Re-drives emails whose SMTP send failed.
+ * Due rows are claimed in batches under a row lock: the attempt is counted and the row is leased by
+ * moving its nextAttemptAt past the lease, so concurrent sweepers skip it, and a sweeper that dies
+ * mid-send only delays the row until the lease runs out. Each row is then re-sent over a pooled
+ * connection and either marked SENT or scheduled for the next backoff tier. Rows that reach the
+ * maximum number of attempts stay FAILED for good.
+ * The sweeper runs on the scheduler thread, so retries never take a listener consumer away from fresh traffic.
+ */
+@Service
+public class FailedEmailSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailedEmailSweeper.class);
+
+    private final EmailAuditLogRepository emailAuditLogRepository;
+    private final EmailSenderService emailSenderService;
+    private final RetryPolicy retryPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration claimLease;
+
+    public FailedEmailSweeper(EmailAuditLogRepository emailAuditLogRepository,
+                              EmailSenderService emailSenderService,
+                              RetryPolicy retryPolicy,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.notifications.retry.sweep-batch-size:50}") int batchSize,
+                              @Value("${app.notifications.retry.claim-lease-ms:300000}") long claimLeaseMs) {
+        this.emailAuditLogRepository = emailAuditLogRepository;
+        this.emailSenderService = emailSenderService;
+        this.retryPolicy = retryPolicy;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.claimLease = Duration.ofMillis(claimLeaseMs);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.retry.sweep-interval-ms:60000}")
+    public void retryFailedEmails() {
+        int retried = 0;
+        int recovered = 0;
+        while (true) {
+            List<EmailAuditLog> batch = transactionTemplate.execute(status -> claimDueBatch());
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            List<SendOutcome> outcomes = resend(batch);
+            recovered += (int) outcomes.stream().filter(outcome -> outcome == SendOutcome.SENT).count();
+            retried += batch.size();
+            if (outcomes.contains(SendOutcome.DEFERRED)) {
+                // The listeners are using every SMTP connection; leave the rest to the next sweep
+                logger.info("SMTP connections busy; remaining retries deferred to the next sweep.");
+                break;
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        if (retried > 0) {
+            logger.info("Retried {} failed emails; {} sent successfully.", retried, recovered);
+        }
+    }
+
+    private List<EmailAuditLog> claimDueBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailAuditLog> due = emailAuditLogRepository.findDueForRetry(
+                EmailStatus.FAILED, retryPolicy.getMaxSendAttempts(), now, PageRequest.of(0, batchSize));
+        // The row stays FAILED until the outcome is known; counting the attempt up front keeps a
+        // message that crashes the sender from being retried forever
+        due.forEach(log -> {
+            log.setAttempts(log.getAttempts() + 1);
+            log.setNextAttemptAt(now.plus(claimLease));
+        });
+        return emailAuditLogRepository.saveAll(due);
+    }
+
+    private List<SendOutcome> resend(List<EmailAuditLog> batch) {
+        List<SendOutcome> results = emailSenderService.sendEmails(batch.stream()
+                .map(log -> new EmailMessage(log.getRecipientAddress(), log.getSubject(), EmailBodyCodec.bodyOf(log)))
+                .toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            EmailAuditLog log = batch.get(i);
+            if (results.get(i) == SendOutcome.DEFERRED) {
+                // Not attempted: give back the attempt counted by the claim and retry on the next sweep
+                log.setAttempts(log.getAttempts() - 1);
+                log.setNextAttemptAt(now);
+                continue;
+            }
+            log.setProcessedAt(now);
+            if (results.get(i) == SendOutcome.SENT) {
+                log.setStatus(EmailStatus.SENT);
+                log.setFailureReason(null);
+                log.setNextAttemptAt(null);
+            } else {
+                log.setStatus(EmailStatus.FAILED);
+                log.setFailureReason("Email provider (SMTP) failed to send the message.");
+                log.setNextAttemptAt(log.getAttempts() < retryPolicy.getMaxSendAttempts()
+                        ? now.plus(retryPolicy.delayAfter(log.getAttempts()))
+                        : null);
+            }
+        }
+        emailAuditLogRepository.saveAll(batch);
+        return results;
+    }
+}
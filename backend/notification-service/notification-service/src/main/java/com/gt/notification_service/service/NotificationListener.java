@@ -1,18 +1,28 @@
 package com.gt.notification_service.service;
 
+import com.gt.notification_service.config.RetryPolicy;
 import com.gt.notification_service.dto.PassApprovedEvent;
+import com.gt.notification_service.dto.PassCreatedEvent;
 import com.gt.notification_service.dto.PassExpiredEvent;
 import com.gt.notification_service.dto.PassRejectedEvent;
-import com.gt.notification_service.dto.UserCreatedEvent; // <-- IMPORT THE NEW DTO
+import com.gt.notification_service.dto.PasswordResetRequestEvent;
+import com.gt.notification_service.dto.UserCreatedEvent;
 import com.gt.notification_service.model.EmailAuditLog;
 import com.gt.notification_service.model.EmailStatus;
-import com.gt.notification_service.repository.EmailAuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -20,101 +30,179 @@ public class NotificationListener {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationListener.class);
 
-    private final EmailAuditLogRepository emailAuditLogRepository;
+    private static final DateTimeFormatter VISIT_DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final EmailAuditLogWriter emailAuditLogWriter;
     private final EmailSenderService emailSenderService;
+    private final RetryPolicy retryPolicy;
+    private final NotificationTemplateService templateService;
+    private final Counter auditWriteFailures;
 
-    public NotificationListener(EmailAuditLogRepository emailAuditLogRepository, EmailSenderService emailSenderService) {
-        this.emailAuditLogRepository = emailAuditLogRepository;
+    public NotificationListener(EmailAuditLogWriter emailAuditLogWriter, EmailSenderService emailSenderService,
+                                RetryPolicy retryPolicy, NotificationTemplateService templateService,
+                                MeterRegistry meterRegistry) {
+        this.emailAuditLogWriter = emailAuditLogWriter;
         this.emailSenderService = emailSenderService;
+        this.retryPolicy = retryPolicy;
+        this.templateService = templateService;
+        this.auditWriteFailures = meterRegistry.counter("email.audit.write.failures");
     }
 
-    @RabbitListener(queues = "pass.approved.queue", errorHandler = "rabbitMQErrorHandler")
+    /**
+     * Tells the visitor about the pass requested for them, including the pass code they will use on arrival.
+     */
+    @RabbitListener(id = "pass-created", queues = "pass.created.queue", errorHandler = "rabbitMQErrorHandler")
+    public void handlePassCreated(PassCreatedEvent event) {
+        logger.info("Received PassCreatedEvent for pass ID: {}", event.getPassId());
+        if (event.getVisitorEmail() == null || event.getVisitorEmail().isBlank()) {
+            logger.info("Pass ID {} has no visitor email; no notification sent.", event.getPassId());
+            return;
+        }
+        Map<String, Object> model = new HashMap<>();
+        model.put("visitorName", event.getVisitorName());
+        model.put("employeeName", event.getEmployeeName());
+        model.put("tenantName", event.getTenantName());
+        model.put("purpose", event.getPurpose());
+        model.put("passCode", event.getPassCode());
+        if (event.getVisitDateTime() != null) {
+            model.put("visitDate", event.getVisitDateTime().toLocalDate());
+            model.put("visitDateTime", event.getVisitDateTime().format(VISIT_DATE_TIME_FORMAT));
+        }
+        processEmailNotification(event.getPassId(), event.getVisitorEmail(), templateService.render("pass-created", model));
+    }
+
+    @RabbitListener(id = "pass-approved", queues = "pass.approved.queue", errorHandler = "rabbitMQErrorHandler")
     public void handlePassApproved(PassApprovedEvent event) {
         logger.info("Received PassApprovedEvent for pass ID: {}", event.getPassId());
-        String subject = "Your Visitor Pass Request has been Approved!";
-        String body = String.format("Hello,\n\nThe visitor pass for %s has been approved.\n\nThank you.", event.getVisitorName());
-        processEmailNotification(event.getPassId(), event.getEmployeeEmail(), subject, body);
+        Map<String, Object> model = new HashMap<>();
+        model.put("visitorName", event.getVisitorName());
+        processEmailNotification(event.getPassId(), event.getEmployeeEmail(), templateService.render("pass-approved", model));
     }
 
-    @RabbitListener(queues = "pass.rejected.queue", errorHandler = "rabbitMQErrorHandler")
+    @RabbitListener(id = "pass-rejected", queues = "pass.rejected.queue", errorHandler = "rabbitMQErrorHandler")
     public void handlePassRejected(PassRejectedEvent event) {
         logger.info("Received PassRejectedEvent for pass ID: {}", event.getPassId());
-        String subject = "Update on Your Visitor Pass Request";
-        String body = String.format(
-                "Hello,\n\nUnfortunately, the visitor pass request for %s has been rejected.\n\nReason: %s\n\nThank you.",
-                event.getVisitorName(),
-                event.getRejectionReason()
-        );
-        processEmailNotification(event.getPassId(), event.getEmployeeEmail(), subject, body);
+        Map<String, Object> model = new HashMap<>();
+        model.put("visitorName", event.getVisitorName());
+        model.put("rejectionReason", event.getRejectionReason());
+        processEmailNotification(event.getPassId(), event.getEmployeeEmail(), templateService.render("pass-rejected", model));
     }
 
-    @RabbitListener(queues = "pass.expired.queue", errorHandler = "rabbitMQErrorHandler")
+    @RabbitListener(id = "pass-expired", queues = "pass.expired.queue", errorHandler = "rabbitMQErrorHandler")
     public void handlePassExpired(PassExpiredEvent event) {
         logger.info("Received PassExpiredEvent for pass ID: {}", event.getPassId());
-        String subject = "Visitor Pass Expired: " + event.getVisitorName();
-        String body = String.format(
-                "This is an automated notification.\n\nThe visitor pass for %s (scheduled for %s) was not used and has been automatically expired by the system.",
-                event.getVisitorName(),
-                event.getVisitDateTime().toLocalDate().toString()
-        );
-        processEmailNotification(event.getPassId(), event.getEmployeeEmail(), subject, body);
-        if (event.getTenantAdminEmail() != null && !event.getTenantAdminEmail().isEmpty()) {
-            processEmailNotification(event.getPassId(), event.getTenantAdminEmail(), subject, body);
+        Map<String, Object> model = new HashMap<>();
+        model.put("visitorName", event.getVisitorName());
+        model.put("visitDate", event.getVisitDateTime().toLocalDate());
+        RenderedEmail email = templateService.render("pass-expired", model);
+
+        // Newer producers send every tenant admin; older ones only the single tenantAdminEmail
+        List<String> adminEmails = event.getTenantAdminEmails() != null && !event.getTenantAdminEmails().isEmpty()
+                ? event.getTenantAdminEmails()
+                : Collections.singletonList(event.getTenantAdminEmail());
+        List<String> recipients = new ArrayList<>();
+        recipients.add(event.getEmployeeEmail());
+        for (String adminEmail : adminEmails) {
+            if (adminEmail != null && !adminEmail.isEmpty()) {
+                recipients.add(adminEmail);
+            }
         }
+        // The employee and all admins are notified over a single SMTP connection
+        processEmailNotifications(event.getPassId(), recipients, email);
     }
 
-    // VVV THIS IS THE MISSING METHOD VVV
     /**
      * Listens to the user.created.queue for events when a new user is created.
      * @param event The event data from the message queue.
      */
-    @RabbitListener(queues = "user.created.queue", errorHandler = "rabbitMQErrorHandler")
+    @RabbitListener(id = "user-created", queues = "user.created.queue", errorHandler = "rabbitMQErrorHandler")
     public void handleUserCreated(UserCreatedEvent event) {
         logger.info("Received UserCreatedEvent for new user: {}", event.getNewUserEmail());
-
-        String subject = "Welcome to the Visitor Pass Management System!";
-        String body = String.format(
-                "Hello %s,\n\n" +
-                        "An account has been created for you in the Visitor Pass Management System for the location: %s.\n\n" +
-                        "Your assigned role is: %s\n\n" +
-                        "Please log in using the email address this was sent to and the password provided by your administrator.\n\n" +
-                        "You can log in at: %s",
-                event.getNewUserName(),
-                event.getTenantName(),
-                event.getNewUserRole().replace("ROLE_", ""),
-                event.getLoginUrl()
-        );
+        Map<String, Object> model = new HashMap<>();
+        model.put("userName", event.getNewUserName());
+        model.put("tenantName", event.getTenantName());
+        model.put("role", event.getNewUserRole().replace("ROLE_", ""));
+        model.put("loginUrl", event.getLoginUrl());
 
         // We don't have a passId, so we can use null for the audit log
-        processEmailNotification(null, event.getNewUserEmail(), subject, body);
+        processEmailNotification(null, event.getNewUserEmail(), templateService.render("user-created", model));
     }
 
-    private void processEmailNotification(Long passId, String recipientAddress, String subject, String body) {
-        EmailAuditLog auditLog = new EmailAuditLog();
-        auditLog.setCorrelationId(UUID.randomUUID().toString());
-        auditLog.setAssociatedPassId(passId);
-        auditLog.setRecipientAddress(recipientAddress);
-        auditLog.setSubject(subject);
-        auditLog.setBody(body);
-        auditLog.setStatus(EmailStatus.PENDING);
-        auditLog.setCreatedAt(LocalDateTime.now());
-        EmailAuditLog savedLog = emailAuditLogRepository.save(auditLog);
+    @RabbitListener(id = "password-reset", queues = "password.reset.queue", errorHandler = "rabbitMQErrorHandler")
+    public void handlePasswordResetRequest(PasswordResetRequestEvent event) {
+        // The token is deliberately not logged
+        logger.info("Received PasswordResetRequestEvent for user: {}", event.getRecipientEmail());
+        Map<String, Object> model = new HashMap<>();
+        model.put("recipientName", event.getRecipientName());
+        model.put("resetLink", event.getFrontendResetUrl() + "?token=" + event.getResetToken());
+        processEmailNotification(null, event.getRecipientEmail(), templateService.render("password-reset", model));
+    }
 
+    private void processEmailNotification(Long passId, String recipientAddress, RenderedEmail email) {
+        processEmailNotifications(passId, List.of(recipientAddress), email);
+    }
+
+    /**
+     * Sends the emails first and then records each one with its final status, so every email
+     * costs a single (batched) insert instead of an insert as PENDING followed by an update.
+     * Once any email has gone out, a failed insert is logged and counted rather than thrown:
+     * a redelivery would send the emails a second time.
+     */
+    private void processEmailNotifications(Long passId, List<String> recipientAddresses, RenderedEmail email) {
+        LocalDateTime receivedAt = LocalDateTime.now();
+        List<EmailMessage> emails = recipientAddresses.stream()
+                .map(recipientAddress -> new EmailMessage(recipientAddress, email.subject(), email.text(), email.html()))
+                .toList();
+
+        List<SendOutcome> results = emailSenderService.sendEmails(emails);
+
+        LocalDateTime processedAt = LocalDateTime.now();
+        List<EmailAuditLog> auditLogs = new ArrayList<>(recipientAddresses.size());
+        for (int i = 0; i < recipientAddresses.size(); i++) {
+            EmailAuditLog auditLog = new EmailAuditLog();
+            auditLog.setCorrelationId(UUID.randomUUID().toString());
+            auditLog.setAssociatedPassId(passId);
+            auditLog.setRecipientAddress(recipientAddresses.get(i));
+            auditLog.setSubject(email.subject());
+            auditLog.setBody(email.text()); // Retries re-send the plain-text part
+            switch (results.get(i)) {
+                case SENT -> {
+                    auditLog.setStatus(EmailStatus.SENT);
+                    auditLog.setAttempts(1);
+                }
+                case FAILED -> {
+                    markFailed(auditLog, "Email provider (SMTP) failed to send the message.");
+                    auditLog.setAttempts(1);
+                }
+                case DEFERRED -> {
+                    // Never attempted, so the sweeper sends it with the full number of attempts left
+                    markFailed(auditLog, "Not sent yet: no SMTP connection was free.");
+                    auditLog.setAttempts(0);
+                }
+            }
+            auditLog.setCreatedAt(receivedAt);
+            auditLog.setProcessedAt(processedAt);
+            auditLogs.add(auditLog);
+        }
         try {
-            boolean wasSent = emailSenderService.sendEmail(recipientAddress, subject, body);
-            if (wasSent) {
-                savedLog.setStatus(EmailStatus.SENT);
-            } else {
-                savedLog.setStatus(EmailStatus.FAILED);
-                savedLog.setFailureReason("Email provider (SMTP) failed to send the message.");
+            emailAuditLogWriter.insertAll(auditLogs);
+        } catch (RuntimeException ex) {
+            if (!results.contains(SendOutcome.SENT)) {
+                // Nothing was sent, so a redelivery is safe and keeps the failed emails from being lost
+                throw ex;
+            }
+            auditWriteFailures.increment(auditLogs.size());
+            for (EmailAuditLog auditLog : auditLogs) {
+                logger.error("Could not record email to {} (pass ID {}, status {}): {}", auditLog.getRecipientAddress(),
+                        passId, auditLog.getStatus(), ex.getMessage());
             }
-        } catch (Exception e) {
-            logger.error("An exception occurred while sending email for pass ID: {}. Error: {}", passId, e.getMessage());
-            savedLog.setStatus(EmailStatus.FAILED);
-            savedLog.setFailureReason(e.getMessage());
         }
+    }
 
-        savedLog.setProcessedAt(LocalDateTime.now());
-        emailAuditLogRepository.save(savedLog);
+    // The FailedEmailSweeper picks the row up again once nextAttemptAt has passed
+    private void markFailed(EmailAuditLog log, String reason) {
+        log.setStatus(EmailStatus.FAILED);
+        log.setFailureReason(reason);
+        log.setNextAttemptAt(LocalDateTime.now().plus(retryPolicy.delayAfter(1)));
     }
-}
\ No newline at end of file
+}
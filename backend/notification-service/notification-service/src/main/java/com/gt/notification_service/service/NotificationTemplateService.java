@@ -0,0 +1,157 @@
+package com.gt.notification_service.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Renders notification emails from templates compiled once and cached per template name and locale.
+ * A template named "pass-approved" consists of pass-approved.subject.txt, pass-approved.txt and an
+ * optional pass-approved.html; locale variants add a suffix (pass-approved_fr.txt) and fall back to
+ * the unsuffixed files. Templates are read from classpath:templates/email/, unless they exist in the
+ * optional override directory, which is polled for changes so edited templates are picked up without a restart.
+ */
+@Service
+public class NotificationTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationTemplateService.class);
+
+    private static final String CLASSPATH_ROOT = "templates/email/";
+    private static final List<String> TEMPLATE_NAMES = List.of(
+            "pass-created", "pass-approved", "pass-rejected", "pass-expired", "user-created", "password-reset");
+
+    private final Map<TemplateKey, TemplateSet> cache = new ConcurrentHashMap<>();
+    private final Locale defaultLocale;
+    private final Path overrideDirectory;
+    private volatile long lastModifiedSeen;
+
+    public NotificationTemplateService(@Value("${app.notifications.templates.default-locale:en}") String defaultLocale,
+                                       @Value("${app.notifications.templates.directory:}") String overrideDirectory) {
+        this.defaultLocale = Locale.forLanguageTag(defaultLocale);
+        this.overrideDirectory = overrideDirectory.isBlank() ? null : Path.of(overrideDirectory);
+    }
+
+    /**
+     * Compiles every template for the default locale at startup, so a missing or broken template fails fast.
+     */
+    @PostConstruct
+    void precompile() {
+        lastModifiedSeen = latestOverrideModification();
+        TEMPLATE_NAMES.forEach(name -> templatesFor(name, defaultLocale));
+        logger.info("Compiled {} notification templates.", TEMPLATE_NAMES.size());
+    }
+
+    public RenderedEmail render(String templateName, Map<String, ?> model) {
+        return render(templateName, defaultLocale, model);
+    }
+
+    public RenderedEmail render(String templateName, Locale locale, Map<String, ?> model) {
+        TemplateSet templates = templatesFor(templateName, locale != null ? locale : defaultLocale);
+        return new RenderedEmail(
+                templates.subject().render(model).strip(),
+                templates.text().render(model),
+                templates.html() != null ? templates.html().render(model) : null);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.templates.reload-interval-ms:5000}")
+    public void reloadChangedTemplates() {
+        if (overrideDirectory == null) {
+            return;
+        }
+        long latest = latestOverrideModification();
+        if (latest > lastModifiedSeen) {
+            lastModifiedSeen = latest;
+            cache.clear();
+            logger.info("Notification templates changed in {}; cache cleared.", overrideDirectory);
+        }
+    }
+
+    private TemplateSet templatesFor(String name, Locale locale) {
+        return cache.computeIfAbsent(new TemplateKey(name, locale), this::load);
+    }
+
+    private TemplateSet load(TemplateKey key) {
+        String subject = read(key.name(), key.locale(), ".subject.txt", true);
+        String text = read(key.name(), key.locale(), ".txt", true);
+        String html = read(key.name(), key.locale(), ".html", false);
+        return new TemplateSet(
+                CompiledTemplate.compile(subject, false),
+                CompiledTemplate.compile(text, false),
+                html != null ? CompiledTemplate.compile(html, true) : null);
+    }
+
+    /**
+     * Reads the most specific variant of a template file: language and country, then language, then none.
+     */
+    private String read(String name, Locale locale, String extension, boolean required) {
+        for (String suffix : List.of("_" + locale, "_" + locale.getLanguage(), "")) {
+            if (suffix.equals("_")) {
+                continue;
+            }
+            String content = readFile(name + suffix + extension);
+            if (content != null) {
+                return content;
+            }
+        }
+        if (required) {
+            throw new IllegalStateException("Notification template not found: " + name + extension);
+        }
+        return null;
+    }
+
+    private String readFile(String fileName) {
+        try {
+            if (overrideDirectory != null) {
+                Path file = overrideDirectory.resolve(fileName);
+                if (Files.isRegularFile(file)) {
+                    return Files.readString(file, StandardCharsets.UTF_8);
+                }
+            }
+            ClassPathResource resource = new ClassPathResource(CLASSPATH_ROOT + fileName);
+            if (!resource.exists()) {
+                return null;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read notification template " + fileName, e);
+        }
+    }
+
+    private long latestOverrideModification() {
+        if (overrideDirectory == null || !Files.isDirectory(overrideDirectory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(overrideDirectory)) {
+            // The directory's own timestamp changes when a template is added or removed
+            long directoryModified = overrideDirectory.toFile().lastModified();
+            return Math.max(directoryModified, files.mapToLong(file -> file.toFile().lastModified()).max().orElse(0));
+        } catch (IOException e) {
+            logger.warn("Could not scan template directory {}: {}", overrideDirectory, e.getMessage());
+            return lastModifiedSeen;
+        }
+    }
+
+    private record TemplateKey(String name, Locale locale) {
+    }
+
+    private record TemplateSet(CompiledTemplate subject, CompiledTemplate text, CompiledTemplate html) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.gt.notification_service.service;
+
+/**
+ * The output of a notification template: a subject, a plain-text part and an optional HTML part.
+ */
+public record RenderedEmail(String subject, String text, String html) {
+}
@@ -0,0 +1,12 @@
+package com.gt.notification_service.service;
+
+/**
+ * What happened to one email handed to {@link EmailSenderService#sendEmails}.
+ */
+public enum SendOutcome {
+    SENT,
+    /** The SMTP server refused the message or the connection broke while sending it. */
+    FAILED,
+    /** Not attempted: no pooled SMTP connection became free in time. This is not a failed send. */
+    DEFERRED
+}
@@ -0,0 +1,38 @@
+package com.gt.notification_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out SMTP sends so the service stays within the mail provider's quota.
+ * Each caller reserves the next free slot and sleeps until it arrives, so sends are
+ * spread evenly instead of bursting. A rate of 0 disables the limiter.
+ */
+@Component
+public class SendRateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeSlotNanos = System.nanoTime();
+
+    public SendRateLimiter(@Value("${app.mail.rate-limit.per-second:5}") double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+    }
+
+    public void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFreeSlotNanos);
+            nextFreeSlotNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.gt.notification_service.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of connected, authenticated SMTP transports.
+ * Reusing a transport skips the TCP connect, STARTTLS handshake and AUTH exchange that
+ * JavaMailSender performs for every send. Connections idle for longer than the idle timeout
+ * are closed, and a connection is retired after a fixed number of messages because many
+ * providers cap how much can be sent over one session.
+ */
+@Component
+public class SmtpConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final int maxMessagesPerConnection;
+
+    public SmtpConnectionPool(JavaMailSenderImpl mailSender,
+                              @Value("${app.mail.pool.max-size:4}") int maxSize,
+                              @Value("${app.mail.pool.borrow-timeout-ms:10000}") long borrowTimeoutMs,
+                              @Value("${app.mail.pool.idle-timeout-ms:60000}") long idleTimeoutMs,
+                              @Value("${app.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(maxSize, true);
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+    }
+
+    public Session getSession() {
+        return mailSender.getSession();
+    }
+
+    /**
+     * Takes a connected transport from the pool, opening a new one if none is idle.
+     * Every borrowed transport must be handed back with {@link #release}.
+     *
+     * @throws PoolExhaustedException If no connection became free within the borrow timeout.
+     */
+    public PooledTransport borrow() throws MessagingException, InterruptedException {
+        if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new PoolExhaustedException();
+        }
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (pooled.transport().isConnected()) {
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a transport to the pool. Broken or worn-out transports are closed instead.
+     */
+    public void release(PooledTransport pooled, boolean healthy) {
+        try {
+            if (healthy && pooled.messagesSent() < maxMessagesPerConnection) {
+                pooled.touch();
+                idle.offerFirst(pooled);
+            } else {
+                close(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.pool.eviction-interval-ms:30000}")
+    public void evictIdleConnections() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        Iterator<PooledTransport> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            PooledTransport pooled = iterator.next();
+            if (pooled.lastUsedMillis() < cutoff && idle.remove(pooled)) {
+                close(pooled);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        Transport transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        logger.debug("Opened new SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    private static void close(PooledTransport pooled) {
+        try {
+            pooled.transport().close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * All connections stayed in use for the whole borrow timeout. Nothing was sent, so callers
+     * should defer the email rather than count it as a failed send.
+     */
+    public static final class PoolExhaustedException extends MessagingException {
+
+        PoolExhaustedException() {
+            super("Timed out waiting for a free SMTP connection.");
+        }
+    }
+
+    public static final class PooledTransport {
+
+        private final Transport transport;
+        private int messagesSent;
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public Transport transport() {
+            return transport;
+        }
+
+        public void recordSent() {
+            messagesSent++;
+        }
+
+        int messagesSent() {
+            return messagesSent;
+        }
+
+        long lastUsedMillis() {
+            return lastUsedMillis;
+        }
+
+        void touch() {
+            lastUsedMillis = System.currentTimeMillis();
+        }
+    }
+}
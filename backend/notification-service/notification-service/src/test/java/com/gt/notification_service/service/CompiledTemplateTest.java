@@ -0,0 +1,81 @@
+package com.gt.notification_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledTemplateTest {
+
+	@Test
+	void replacesPlaceholdersWithModelValues() {
+		CompiledTemplate template = CompiledTemplate.compile("Hello {{name}}, your code is {{code}}.", false);
+
+		assertThat(template.render(Map.of("name", "Ada", "code", 42))).isEqualTo("Hello Ada, your code is 42.");
+	}
+
+	@Test
+	void trimsWhitespaceInsidePlaceholders() {
+		CompiledTemplate template = CompiledTemplate.compile("Hi {{ name }}!", false);
+
+		assertThat(template.render(Map.of("name", "Ada"))).isEqualTo("Hi Ada!");
+	}
+
+	@Test
+	void handlesAdjacentPlaceholdersAndPlaceholdersAtTheEdges() {
+		CompiledTemplate template = CompiledTemplate.compile("{{a}}{{b}} and {{c}}", false);
+
+		assertThat(template.render(Map.of("a", "1", "b", "2", "c", "3"))).isEqualTo("12 and 3");
+	}
+
+	@Test
+	void rendersMissingAndNullValuesAsEmpty() {
+		CompiledTemplate template = CompiledTemplate.compile("[{{present}}|{{missing}}|{{nullValue}}]", false);
+		Map<String, Object> model = new HashMap<>();
+		model.put("present", "x");
+		model.put("nullValue", null);
+
+		assertThat(template.render(model)).isEqualTo("[x||]");
+	}
+
+	@Test
+	void keepsAnUnclosedPlaceholderAsLiteralText() {
+		CompiledTemplate template = CompiledTemplate.compile("Hello {{name}}, see {{unclosed", false);
+
+		assertThat(template.render(Map.of("name", "Ada", "unclosed", "ignored"))).isEqualTo("Hello Ada, see {{unclosed");
+	}
+
+	@Test
+	void keepsTextWithoutPlaceholdersUnchanged() {
+		CompiledTemplate template = CompiledTemplate.compile("No placeholders } here {", false);
+
+		assertThat(template.render(Map.of())).isEqualTo("No placeholders } here {");
+		assertThat(CompiledTemplate.compile("", false).render(Map.of())).isEmpty();
+	}
+
+	@Test
+	void escapesValuesInHtmlTemplates() {
+		CompiledTemplate template = CompiledTemplate.compile("<p>{{name}}</p>", true);
+
+		assertThat(template.render(Map.of("name", "<script>alert('x')</script> & \"more\"")))
+				.isEqualTo("<p>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;more&quot;</p>");
+	}
+
+	@Test
+	void doesNotEscapeTheTemplateItselfOrPlainTextValues() {
+		assertThat(CompiledTemplate.compile("<b>{{name}}</b>", true).render(Map.of("name", "Ada")))
+				.isEqualTo("<b>Ada</b>");
+		assertThat(CompiledTemplate.compile("{{name}}", false).render(Map.of("name", "A & <B>")))
+				.isEqualTo("A & <B>");
+	}
+
+	@Test
+	void canBeRenderedRepeatedlyWithDifferentModels() {
+		CompiledTemplate template = CompiledTemplate.compile("Hi {{name}}", false);
+
+		assertThat(template.render(Map.of("name", "Ada"))).isEqualTo("Hi Ada");
+		assertThat(template.render(Map.of("name", "Grace"))).isEqualTo("Hi Grace");
+	}
+}
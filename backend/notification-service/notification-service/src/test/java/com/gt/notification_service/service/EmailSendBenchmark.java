@@ -0,0 +1,86 @@
+package com.gt.notification_service.service;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Emails per second against a local GreenMail SMTP server: pooled connections (one session for a
+ * batch of emails) versus JavaMailSender's connect-per-send. The rate limiter is disabled, so this
+ * measures the SMTP overhead only. Run with {@code mvn test -Pbenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailSendBenchmark {
+
+	private static final int BATCH = 20;
+
+	private GreenMail greenMail;
+	private SmtpConnectionPool pool;
+	private EmailSenderService pooledSender;
+	private JavaMailSenderImpl mailSender;
+	private List<EmailMessage> batch;
+
+	@Setup(Level.Trial)
+	public void startServer() {
+		greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+		greenMail.start();
+		mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(greenMail.getSmtp().getPort());
+		pool = new SmtpConnectionPool(mailSender, 4, 10000, 60000, 100);
+		pooledSender = new EmailSenderService(pool, new SendRateLimiter(0), "noreply@example.com");
+		batch = IntStream.range(0, BATCH)
+				.mapToObj(i -> new EmailMessage("visitor" + i + "@example.com", "Your visitor pass", "Pass code 0123-4567-8"))
+				.toList();
+	}
+
+	@TearDown(Level.Iteration)
+	public void purgeMailboxes() throws Exception {
+		greenMail.purgeEmailFromAllMailboxes();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopServer() {
+		pool.closeAll();
+		greenMail.stop();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public List<SendOutcome> pooledConnection() {
+		return pooledSender.sendEmails(batch);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void connectPerEmail() {
+		for (EmailMessage email : batch) {
+			SimpleMailMessage message = new SimpleMailMessage();
+			message.setFrom("noreply@example.com");
+			message.setTo(email.to());
+			message.setSubject(email.subject());
+			message.setText(email.body());
+			mailSender.send(message);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.gt.notification_service.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailSenderServiceTest {
+
+	@RegisterExtension
+	static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+	private SmtpConnectionPool pool;
+
+	@AfterEach
+	void closePool() {
+		if (pool != null) {
+			pool.closeAll();
+		}
+	}
+
+	@Test
+	void sendsEveryEmailOfABatch() throws Exception {
+		EmailSenderService sender = sender(2, 1000, 100);
+
+		List<SendOutcome> outcomes = sender.sendEmails(IntStream.range(0, 5)
+				.mapToObj(i -> new EmailMessage("visitor" + i + "@example.com", "Subject " + i, "Body " + i))
+				.toList());
+
+		assertThat(outcomes).containsOnly(SendOutcome.SENT).hasSize(5);
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		assertThat(received).hasSize(5);
+		assertThat(received[0].getSubject()).isEqualTo("Subject 0");
+		assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("visitor0@example.com");
+	}
+
+	@Test
+	void sendsHtmlEmailsAsMultipartAlternative() throws Exception {
+		EmailSenderService sender = sender(1, 1000, 100);
+
+		List<SendOutcome> outcomes = sender.sendEmails(List.of(
+				new EmailMessage("visitor@example.com", "Your pass", "Plain text", "<p>Html</p>")));
+
+		assertThat(outcomes).containsExactly(SendOutcome.SENT);
+		String raw = GreenMailUtil.getWholeMessage(greenMail.getReceivedMessages()[0]);
+		assertThat(raw).contains("multipart/alternative", "Plain text", "<p>Html</p>");
+	}
+
+	@Test
+	void keepsSendingAfterTheConnectionIsRetired() throws Exception {
+		// Each connection carries at most two messages, so five emails need three sessions
+		EmailSenderService sender = sender(1, 1000, 2);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(sender.sendEmail("visitor" + i + "@example.com", "Subject", "Body")).isTrue();
+		}
+
+		assertThat(greenMail.getReceivedMessages()).hasSize(5);
+	}
+
+	@Test
+	void defersEmailsWhenNoConnectionIsFree() throws Exception {
+		EmailSenderService sender = sender(1, 100, 100);
+		SmtpConnectionPool.PooledTransport held = pool.borrow();
+		try {
+			List<SendOutcome> outcomes = sender.sendEmails(List.of(
+					new EmailMessage("a@example.com", "Subject", "Body"),
+					new EmailMessage("b@example.com", "Subject", "Body")));
+
+			// A busy pool is not a failed send: nothing went out and nothing is counted as failed
+			assertThat(outcomes).containsExactly(SendOutcome.DEFERRED, SendOutcome.DEFERRED);
+			assertThat(greenMail.getReceivedMessages()).isEmpty();
+		} finally {
+			pool.release(held, true);
+		}
+	}
+
+	@Test
+	void reportsFailedSendsWhenTheServerIsUnreachable() {
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(1); // Nothing listens here
+		pool = new SmtpConnectionPool(mailSender, 1, 1000, 60000, 100);
+		EmailSenderService sender = new EmailSenderService(pool, new SendRateLimiter(0), "noreply@example.com");
+
+		List<SendOutcome> outcomes = sender.sendEmails(List.of(new EmailMessage("a@example.com", "Subject", "Body")));
+
+		assertThat(outcomes).containsExactly(SendOutcome.FAILED);
+	}
+
+	@Test
+	void rateLimiterSpacesOutSends() throws Exception {
+		SendRateLimiter limiter = new SendRateLimiter(20);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 11; i++) {
+			limiter.acquire();
+		}
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		// The first permit is immediate, the next ten are 50 ms apart
+		assertThat(elapsedMs).isGreaterThanOrEqualTo(450);
+	}
+
+	private EmailSenderService sender(int poolSize, long borrowTimeoutMs, int maxMessagesPerConnection) {
+		pool = new SmtpConnectionPool(mailSender(), poolSize, borrowTimeoutMs, 60000, maxMessagesPerConnection);
+		return new EmailSenderService(pool, new SendRateLimiter(0), "noreply@example.com");
+	}
+
+	private static JavaMailSenderImpl mailSender() {
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(greenMail.getSmtp().getPort());
+		return mailSender;
+	}
+}
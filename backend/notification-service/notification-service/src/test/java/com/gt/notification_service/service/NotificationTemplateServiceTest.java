@@ -0,0 +1,124 @@
+package com.gt.notification_service.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class NotificationTemplateServiceTest {
+
+	@TempDir
+	Path templates;
+
+	@Test
+	void usesTheMostSpecificLocaleVariantOfEachFile() throws IOException {
+		write("welcome.subject.txt", "Welcome");
+		write("welcome_fr_CA.subject.txt", "Bienvenue au Canada");
+		write("welcome.txt", "Hello {{name}}");
+		write("welcome_fr.txt", "Bonjour {{name}}");
+		NotificationTemplateService service = service();
+
+		RenderedEmail email = service.render("welcome", Locale.CANADA_FRENCH, Map.of("name", "Ada"));
+
+		assertThat(email.subject()).isEqualTo("Bienvenue au Canada");
+		assertThat(email.text()).isEqualTo("Bonjour Ada");
+		assertThat(email.html()).isNull();
+	}
+
+	@Test
+	void fallsBackToTheLanguageAndThenToTheUnsuffixedFiles() throws IOException {
+		write("welcome.subject.txt", "Welcome");
+		write("welcome.txt", "Hello {{name}}");
+		write("welcome_fr.txt", "Bonjour {{name}}");
+		NotificationTemplateService service = service();
+
+		assertThat(service.render("welcome", Locale.FRANCE, Map.of("name", "Ada")).text()).isEqualTo("Bonjour Ada");
+		assertThat(service.render("welcome", Locale.GERMANY, Map.of("name", "Ada")).text()).isEqualTo("Hello Ada");
+		assertThat(service.render("welcome", Locale.ROOT, Map.of("name", "Ada")).text()).isEqualTo("Hello Ada");
+	}
+
+	@Test
+	void usesTheDefaultLocaleWhenNoneIsGiven() throws IOException {
+		write("welcome.subject.txt", "Welcome");
+		write("welcome.txt", "Hello");
+		write("welcome_fr.txt", "Bonjour");
+		NotificationTemplateService service = new NotificationTemplateService("fr", templates.toString());
+
+		assertThat(service.render("welcome", Map.of()).text()).isEqualTo("Bonjour");
+		assertThat(service.render("welcome", null, Map.of()).text()).isEqualTo("Bonjour");
+	}
+
+	@Test
+	void escapesValuesInTheHtmlPartOnly() throws IOException {
+		write("welcome.subject.txt", "Welcome {{name}}");
+		write("welcome.txt", "Hello {{name}}");
+		write("welcome.html", "<p>Hello {{name}}</p>");
+		NotificationTemplateService service = service();
+
+		RenderedEmail email = service.render("welcome", Map.of("name", "<Ada>"));
+
+		assertThat(email.subject()).isEqualTo("Welcome <Ada>");
+		assertThat(email.text()).isEqualTo("Hello <Ada>");
+		assertThat(email.html()).isEqualTo("<p>Hello &lt;Ada&gt;</p>");
+	}
+
+	@Test
+	void failsWhenARequiredFileIsMissing() throws IOException {
+		write("welcome.subject.txt", "Welcome");
+		NotificationTemplateService service = service();
+
+		assertThatIllegalStateException().isThrownBy(() -> service.render("welcome", Map.of()))
+				.withMessageContaining("welcome.txt");
+	}
+
+	@Test
+	void overrideDirectoryTakesPrecedenceOverTheClasspath() throws IOException {
+		write("pass-approved.subject.txt", "Overridden subject");
+		NotificationTemplateService service = service();
+
+		RenderedEmail email = service.render("pass-approved", Map.of("visitorName", "Ada"));
+
+		assertThat(email.subject()).isEqualTo("Overridden subject");
+		// Files that are not overridden still come from the classpath
+		assertThat(email.text()).contains("Ada");
+	}
+
+	@Test
+	void picksUpChangedTemplatesAfterReload() throws IOException {
+		write("welcome.subject.txt", "Welcome");
+		Path text = write("welcome.txt", "Version 1");
+		NotificationTemplateService service = service();
+		service.precompile();
+		assertThat(service.render("welcome", Map.of()).text()).isEqualTo("Version 1");
+
+		Files.writeString(text, "Version 2", StandardCharsets.UTF_8);
+		text.toFile().setLastModified(System.currentTimeMillis() + 10_000);
+		service.reloadChangedTemplates();
+
+		assertThat(service.render("welcome", Map.of()).text()).isEqualTo("Version 2");
+	}
+
+	@Test
+	void compilesTheBundledTemplates() {
+		NotificationTemplateService service = new NotificationTemplateService("en", "");
+		service.precompile();
+
+		assertThat(service.render("pass-approved", Map.of("visitorName", "Ada")).subject()).isNotBlank();
+	}
+
+	private NotificationTemplateService service() {
+		return new NotificationTemplateService("en", templates.toString());
+	}
+
+	private Path write(String fileName, String content) throws IOException {
+		return Files.writeString(templates.resolve(fileName), content, StandardCharsets.UTF_8);
+	}
+}
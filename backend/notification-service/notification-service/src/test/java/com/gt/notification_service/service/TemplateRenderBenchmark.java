@@ -0,0 +1,91 @@
+package com.gt.notification_service.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rendering the pass-created HTML template: the compiled template against the per-render
+ * approaches it replaced (a String.replace per placeholder, and a regex scan).
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*([^}]+?)\\s*}}");
+
+	private String source;
+	private CompiledTemplate compiled;
+	private Map<String, Object> model;
+
+	@Setup
+	public void setUp() throws IOException {
+		try (InputStream in = getClass().getResourceAsStream("/templates/email/pass-created.html")) {
+			source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		compiled = CompiledTemplate.compile(source, true);
+		model = Map.of(
+				"visitorName", "Ada Lovelace",
+				"employeeName", "Grace Hopper",
+				"tenantName", "Analytical Engines & Co",
+				"visitDateTime", "2026-10-17 09:30",
+				"purpose", "Design review",
+				"passCode", "7K3M-9Q2X-WT");
+	}
+
+	@Benchmark
+	public String compiledTemplate() {
+		return compiled.render(model);
+	}
+
+	@Benchmark
+	public String compileAndRender() {
+		return CompiledTemplate.compile(source, true).render(model);
+	}
+
+	@Benchmark
+	public String stringReplacePerPlaceholder() {
+		String out = source;
+		for (Map.Entry<String, Object> entry : model.entrySet()) {
+			out = out.replace("{{" + entry.getKey() + "}}", escape(entry.getValue().toString()));
+		}
+		return out;
+	}
+
+	@Benchmark
+	public String regexReplace() {
+		Matcher matcher = PLACEHOLDER.matcher(source);
+		StringBuilder out = new StringBuilder(source.length() + 128);
+		while (matcher.find()) {
+			Object value = model.get(matcher.group(1));
+			matcher.appendReplacement(out, Matcher.quoteReplacement(value != null ? escape(value.toString()) : ""));
+		}
+		matcher.appendTail(out);
+		return out.toString();
+	}
+
+	private static String escape(String value) {
+		return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+				.replace("\"", "&quot;").replace("'", "&#39;");
+	}
+}
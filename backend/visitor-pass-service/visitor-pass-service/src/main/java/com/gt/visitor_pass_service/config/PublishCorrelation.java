@@ -0,0 +1,32 @@
+package com.gt.visitor_pass_service.config;
+
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+
+/**
+ * Correlation data that remembers what was published and when,
+ * so confirms can be turned into per-routing-key latency and failure metrics.
+ */
+public class PublishCorrelation extends CorrelationData {
+
+    private final String routingKey;
+    private final int messageCount;
+    private final long startNanos = System.nanoTime();
+
+    public PublishCorrelation(String id, String routingKey, int messageCount) {
+        super(id);
+        this.routingKey = routingKey;
+        this.messageCount = messageCount;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public int getMessageCount() {
+        return messageCount;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+}
@@ -0,0 +1,48 @@
+package com.gt.visitor_pass_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class RabbitPublishingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RabbitPublishingConfig.class);
+
+    /**
+     * Handles publisher confirms and returns asynchronously on the connection's threads.
+     * Confirms for PublishCorrelation sends are recorded as "amqp.publish.latency" (tagged by
+     * routing key and outcome); nacks and unroutable returns are counted as "amqp.publish.failures".
+     * Callers that need the outcome itself wait on the correlation's future.
+     */
+    @Bean
+    public RabbitTemplateCustomizer publishMetricsCustomizer(MeterRegistry meterRegistry) {
+        return template -> {
+            template.setMandatory(true);
+            template.setConfirmCallback((correlation, ack, cause) -> {
+                if (!(correlation instanceof PublishCorrelation publish)) {
+                    return;
+                }
+                // A return arrives before the confirm of the same message, so an acked return is already known here
+                String outcome = !ack ? "nack" : publish.getReturned() != null ? "returned" : "ack";
+                meterRegistry.timer("amqp.publish.latency", "routingKey", publish.getRoutingKey(), "outcome", outcome)
+                        .record(System.nanoTime() - publish.getStartNanos(), TimeUnit.NANOSECONDS);
+                if (!ack) {
+                    meterRegistry.counter("amqp.publish.failures", "routingKey", publish.getRoutingKey(), "reason", "nack")
+                            .increment(publish.getMessageCount());
+                }
+            });
+            template.setReturnsCallback(returned -> {
+                logger.warn("Message returned as unroutable: exchange={}, routingKey={}, reply={}",
+                        returned.getExchange(), returned.getRoutingKey(), returned.getReplyText());
+                meterRegistry.counter("amqp.publish.failures", "routingKey", returned.getRoutingKey(), "reason", "unroutable")
+                        .increment();
+            });
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.gt.visitor_pass_service.config.security;
+
+import com.gt.visitor_pass_service.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the IDs of deactivated users in memory so that JWT authentication can reject
+ * them without a database lookup per request.
+ * The set is loaded at startup, updated by {@code UserService.updateUserStatus} as soon as its change commits,
+ * and periodically re-synced from the database to pick up changes made by other instances.
+ */
+@Component
+public class DeactivatedUserCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeactivatedUserCache.class);
+
+    private final UserRepository userRepository;
+    private final Set<Long> deactivatedUserIds = ConcurrentHashMap.newKeySet();
+
+    public DeactivatedUserCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.deactivated-users-refresh-ms:60000}")
+    public void refresh() {
+        try {
+            Set<Long> current = Set.copyOf(userRepository.findInactiveUserIds());
+            deactivatedUserIds.retainAll(current);
+            deactivatedUserIds.addAll(current);
+        } catch (Exception ex) {
+            // Keep serving the last known set; the next refresh will try again
+            logger.error("Could not refresh deactivated user cache: {}", ex.getMessage());
+        }
+    }
+
+    public boolean isDeactivated(Long userId) {
+        return userId != null && deactivatedUserIds.contains(userId);
+    }
+
+    public void markDeactivated(Long userId) {
+        deactivatedUserIds.add(userId);
+    }
+
+    public void markActive(Long userId) {
+        deactivatedUserIds.remove(userId);
+    }
+}
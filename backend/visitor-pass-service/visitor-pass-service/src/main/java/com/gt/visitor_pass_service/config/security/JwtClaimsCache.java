@@ -0,0 +1,67 @@
+package com.gt.visitor_pass_service.config.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache of already-verified JWT claims, keyed by the raw token string.
+ * When full, the least recently used token makes room for the new one. Entries are also
+ * dropped as soon as the token they belong to has expired, so a cached entry can never
+ * outlive the token itself.
+ */
+class JwtClaimsCache {
+
+    private final int maxEntries;
+    // Access-ordered, so the eldest entry is the least recently used; guarded by its own monitor
+    private final Map<String, Claims> entries;
+
+    JwtClaimsCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > JwtClaimsCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return The cached claims for this token, or null if absent or expired.
+     */
+    Claims get(String token) {
+        synchronized (entries) {
+            Claims claims = entries.get(token);
+            if (claims == null) {
+                return null;
+            }
+            if (isExpired(claims, new Date())) {
+                entries.remove(token);
+                return null;
+            }
+            return claims;
+        }
+    }
+
+    void put(String token, Claims claims) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(token, claims);
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static boolean isExpired(Claims claims, Date now) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && !expiration.after(now);
+    }
+}
@@ -22,18 +22,29 @@ public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    /**
+     * Request attribute under which {@link JwtAuthenticationFilter} stores the verified claims,
+     * so controllers and services can read them without parsing the token again.
+     */
+    public static final String CLAIMS_REQUEST_ATTRIBUTE = "com.gt.visitor_pass_service.jwt.claims";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration-ms}")
     private int jwtExpirationInMs;
 
+    @Value("${app.jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
     private Key key;
+    private JwtClaimsCache claimsCache;
 
     @PostConstruct
     public void init() {
         // Creates a secure key from your secret string for signing the JWT
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.claimsCache = new JwtClaimsCache(claimsCacheSize);
     }
 
     public String generateToken(Authentication authentication, User user) {
@@ -52,25 +63,35 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Verifies the token signature and returns its claims. The signature is only checked
+     * the first time a token is seen; later calls are served from a bounded cache until
+     * the token expires.
+     *
+     * @param token The JWT string.
+     * @return The verified claims.
+     */
+    public Claims getClaims(String token) {
+        Claims claims = claimsCache.get(token);
+        if (claims == null) {
+            claims = Jwts.parser()
+                    .setSigningKey(key)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            claimsCache.put(token, claims);
+        }
+        return claims;
+    }
+
     public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return getClaims(token).getSubject();
     }
 
     public Long getTenantIdFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("tenantId", Long.class);
+        return getClaims(token).get("tenantId", Long.class);
     }
 
-    // VVV THIS IS THE NEWLY ADDED METHOD VVV
     /**
      * Extracts the User ID from the JWT claims.
      *
@@ -78,26 +99,27 @@ public class JwtTokenProvider {
      * @return The user's ID (Long).
      */
     public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("userId", Long.class);
+        return getClaims(token).get("userId", Long.class);
     }
 
     public boolean validateToken(String authToken) {
+        return getValidatedClaims(authToken) != null;
+    }
+
+    /**
+     * Validates the token and returns its claims in a single step.
+     *
+     * @param authToken The JWT string.
+     * @return The verified claims, or null if the token is invalid or expired.
+     */
+    public Claims getValidatedClaims(String authToken) {
         try {
-            Jwts.parser()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
+            return getClaims(authToken);
         } catch (SignatureException ex) {
             logger.error("Invalid JWT signature: {}", ex.getMessage());
         } catch (Exception ex) {
             logger.error("JWT token validation error: {}", ex.getMessage());
         }
-        return false;
+        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.gt.visitor_pass_service.config.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A stateless principal built directly from verified JWT claims.
+ * It carries everything the API needs about the caller (id, email, role, tenant)
+ * without loading the User entity from the database on every request.
+ */
+public class JwtUserPrincipal implements UserDetails {
+
+    private final Long userId;
+    private final String email;
+    private final String role;
+    private final Long tenantId;
+    private final List<GrantedAuthority> authorities;
+
+    public JwtUserPrincipal(Long userId, String email, String role, Long tenantId) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.tenantId = tenantId;
+        this.authorities = role != null
+                ? Collections.singletonList(new SimpleGrantedAuthority(role))
+                : Collections.emptyList();
+    }
+
+    public static JwtUserPrincipal fromClaims(Claims claims) {
+        return new JwtUserPrincipal(
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.get("tenantId", Long.class)
+        );
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    // The password is never part of the token and is not needed after login
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -1,7 +1,11 @@
 package com.gt.visitor_pass_service.controller;
 
+import com.gt.visitor_pass_service.config.security.JwtUserPrincipal;
+import com.gt.visitor_pass_service.dto.BulkDecisionRequest;
+import com.gt.visitor_pass_service.dto.BulkDecisionResponse;
 import com.gt.visitor_pass_service.dto.RejectPassRequest;
 import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.service.BulkApprovalService;
 import com.gt.visitor_pass_service.service.TenantSecurityService;
 import com.gt.visitor_pass_service.service.VisitorPassService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,10 +27,13 @@ public class ApproverController {
 
     private final VisitorPassService visitorPassService;
     private final TenantSecurityService tenantSecurityService;
+    private final BulkApprovalService bulkApprovalService;
 
-    public ApproverController(VisitorPassService visitorPassService, TenantSecurityService tenantSecurityService) {
+    public ApproverController(VisitorPassService visitorPassService, TenantSecurityService tenantSecurityService,
+                              BulkApprovalService bulkApprovalService) {
         this.visitorPassService = visitorPassService;
         this.tenantSecurityService = tenantSecurityService;
+        this.bulkApprovalService = bulkApprovalService;
     }
 
     @PostMapping("/{passId}/approve")
@@ -68,4 +75,23 @@ public class ApproverController {
         VisitorPassResponse response = visitorPassService.rejectPass(passId, approverEmail, request.getReason());
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('APPROVER', 'TENANT_ADMIN')")
+    @Operation(summary = "Approve or Reject Passes in Bulk", description = "Applies a list of approve/reject decisions to 'PENDING' passes of the tenant in one transaction and returns a result per pass. Rejections require a reason.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Decisions processed; see the per-pass results"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data (e.g., empty or too many decisions)"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    public ResponseEntity<BulkDecisionResponse> decideInBulk(
+            @Parameter(description = "ID of the tenant") @PathVariable Long tenantId,
+            @Valid @RequestBody BulkDecisionRequest request,
+            Authentication authentication,
+            HttpServletRequest servletRequest) {
+        tenantSecurityService.checkTenantAccess(servletRequest.getHeader("Authorization"), tenantId);
+        Long approverId = authentication.getPrincipal() instanceof JwtUserPrincipal principal ? principal.getUserId() : null;
+        BulkDecisionResponse response = bulkApprovalService.decide(tenantId, request.getDecisions(), approverId, authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+}
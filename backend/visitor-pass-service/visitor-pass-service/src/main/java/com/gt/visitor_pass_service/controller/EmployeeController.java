@@ -1,7 +1,10 @@
 package com.gt.visitor_pass_service.controller;
 
 import com.gt.visitor_pass_service.dto.CreatePassRequest;
+import com.gt.visitor_pass_service.dto.PassImportJobResponse;
 import com.gt.visitor_pass_service.dto.VisitorPassResponse;
+import com.gt.visitor_pass_service.dto.VisitorPassSliceResponse;
+import com.gt.visitor_pass_service.service.PassImportService;
 import com.gt.visitor_pass_service.service.TenantSecurityService;
 import com.gt.visitor_pass_service.service.VisitorPassService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +15,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -21,6 +25,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -30,10 +35,13 @@ public class EmployeeController {
 
     private final VisitorPassService visitorPassService;
     private final TenantSecurityService tenantSecurityService;
+    private final PassImportService passImportService;
 
-    public EmployeeController(VisitorPassService visitorPassService, TenantSecurityService tenantSecurityService) {
+    public EmployeeController(VisitorPassService visitorPassService, TenantSecurityService tenantSecurityService,
+                              PassImportService passImportService) {
         this.visitorPassService = visitorPassService;
         this.tenantSecurityService = tenantSecurityService;
+        this.passImportService = passImportService;
     }
 
     @PostMapping
@@ -79,4 +87,71 @@ public class EmployeeController {
         Page<VisitorPassResponse> passes = visitorPassService.getPassesByTenant(tenantId, pageable);
         return ResponseEntity.ok(passes);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/history/cursor")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'TENANT_ADMIN')")
+    @Operation(summary = "Get Personal Pass History (Cursor-Based)",
+            description = "Keyset-paginated version of the pass history, newest first. Pass the returned nextCursor to fetch the following slice. Recommended for users with a long history.")
+    public ResponseEntity<VisitorPassSliceResponse> getMyPassHistorySlice(
+            Authentication authentication,
+            @Parameter(description = "Opaque cursor from the previous response; omit for the first slice") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        String userEmail = authentication.getName();
+        return ResponseEntity.ok(visitorPassService.getPassHistorySliceForUser(userEmail, cursor, size));
+    }
+
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'APPROVER', 'SECURITY', 'TENANT_ADMIN')")
+    @Operation(summary = "Get All Passes in Tenant (Cursor-Based)",
+            description = "Keyset-paginated version of the tenant pass listing, newest first. Pass the returned nextCursor to fetch the following slice. Recommended for tenants with a large number of passes.")
+    public ResponseEntity<VisitorPassSliceResponse> getPassSliceForTenant(
+            @Parameter(description = "ID of the tenant") @PathVariable Long tenantId,
+            @Parameter(description = "Opaque cursor from the previous response; omit for the first slice") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            HttpServletRequest servletRequest) {
+        tenantSecurityService.checkTenantAccess(servletRequest.getHeader("Authorization"), tenantId);
+        return ResponseEntity.ok(visitorPassService.getPassSliceByTenant(tenantId, cursor, size));
+    }
+
+    @PostMapping(value = "/imports", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'TENANT_ADMIN')")
+    @Operation(summary = "Import Visitor Passes in Bulk",
+            description = "Creates 'PENDING' passes from a CSV upload (header row with visitorName, visitorEmail, visitDateTime and optionally visitorPhone, purpose) " +
+                    "or NDJSON (one pass request object per line). The upload is processed as it is received; rows that fail validation are reported per line.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Import job finished; see its counters and row errors"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Not authorized or accessing wrong tenant")
+    })
+    public ResponseEntity<PassImportJobResponse> importPasses(
+            @Parameter(description = "ID of the tenant where the passes are being created") @PathVariable Long tenantId,
+            Authentication authentication,
+            HttpServletRequest servletRequest) throws IOException {
+        tenantSecurityService.checkTenantAccess(servletRequest.getHeader("Authorization"), tenantId);
+        PassImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(servletRequest.getContentType()))
+                ? PassImportService.Format.NDJSON
+                : PassImportService.Format.CSV;
+        PassImportJobResponse response = passImportService.importPasses(tenantId, authentication.getName(), format, servletRequest.getInputStream());
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/imports/{jobId}")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'TENANT_ADMIN')")
+    @Operation(summary = "Get an Import Job", description = "Returns the progress of a bulk import and the errors recorded for its rows.")
+    public ResponseEntity<PassImportJobResponse> getImportJob(
+            @Parameter(description = "ID of the tenant") @PathVariable Long tenantId,
+            @Parameter(description = "ID of the import job") @PathVariable Long jobId,
+            HttpServletRequest servletRequest) {
+        tenantSecurityService.checkTenantAccess(servletRequest.getHeader("Authorization"), tenantId);
+        return ResponseEntity.ok(passImportService.getJob(tenantId, jobId));
+    }
+
+    @GetMapping("/imports")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'TENANT_ADMIN')")
+    @Operation(summary = "List Recent Import Jobs", description = "Returns the 20 most recent bulk imports of the tenant, including imports still running.")
+    public ResponseEntity<List<PassImportJobResponse>> getRecentImportJobs(
+            @Parameter(description = "ID of the tenant") @PathVariable Long tenantId,
+            HttpServletRequest servletRequest) {
+        tenantSecurityService.checkTenantAccess(servletRequest.getHeader("Authorization"), tenantId);
+        return ResponseEntity.ok(passImportService.getRecentJobs(tenantId));
+    }
+}
@@ -5,6 +5,7 @@ import com.gt.visitor_pass_service.dto.SecurityDashboardResponse;
 import com.gt.visitor_pass_service.dto.VisitorPassResponse;
 import com.gt.visitor_pass_service.service.TenantSecurityService;
 import com.gt.visitor_pass_service.service.VisitorPassService;
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -46,7 +47,7 @@ public class SecurityController {
     @Operation(summary = "Search for a Pass by Code", description = "Finds a specific visitor pass using its unique pass code.")
     public ResponseEntity<VisitorPassResponse> findPassByCode(
             @Parameter(description = "ID of the tenant") @PathVariable Long tenantId,
-            @Parameter(description = "The 8-character unique pass code") @RequestParam String passCode,
+            @Parameter(description = "The unique pass code (hyphens and case are ignored)") @RequestParam String passCode,
             HttpServletRequest request) {
         tenantSecurityService.checkTenantAccess(request.getHeader("Authorization"), tenantId);
         VisitorPassResponse response = visitorPassService.findByPassCode(tenantId, passCode);
@@ -73,8 +74,10 @@ public class SecurityController {
             @Parameter(description = "ID of the pass to check-out") @PathVariable Long passId,
             HttpServletRequest request) {
         tenantSecurityService.checkTenantAccess(request.getHeader("Authorization"), tenantId);
-        String token = request.getHeader("Authorization").substring(7);
-        Long securityUserId = tokenProvider.getUserIdFromJWT(token);
+        Claims claims = (Claims) request.getAttribute(JwtTokenProvider.CLAIMS_REQUEST_ATTRIBUTE);
+        Long securityUserId = claims != null
+                ? claims.get("userId", Long.class)
+                : tokenProvider.getUserIdFromJWT(request.getHeader("Authorization").substring(7));
         VisitorPassResponse response = visitorPassService.checkOut(passId, securityUserId);
         return ResponseEntity.ok(response);
     }
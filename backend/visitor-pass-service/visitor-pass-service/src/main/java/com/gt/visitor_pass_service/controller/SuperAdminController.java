@@ -2,6 +2,7 @@ package com.gt.visitor_pass_service.controller;
 
 import com.gt.visitor_pass_service.dto.CreateTenantAndAdminRequest;
 import com.gt.visitor_pass_service.dto.SuperAdminDashboardDTO;
+import com.gt.visitor_pass_service.dto.TenantActivityDTO;
 import com.gt.visitor_pass_service.dto.TenantDashboardInfo;
 import com.gt.visitor_pass_service.service.SuperAdminDashboardService;
 import com.gt.visitor_pass_service.service.UserService;
@@ -10,6 +11,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -37,11 +41,22 @@ public class SuperAdminController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved dashboard data"),
             @ApiResponse(responseCode = "403", description = "Forbidden - Caller is not a Super Admin")
     })
-    public ResponseEntity<SuperAdminDashboardDTO> getAnalyticsDashboard() {
-        SuperAdminDashboardDTO dashboardData = dashboardService.getDashboardData();
+    public ResponseEntity<SuperAdminDashboardDTO> getAnalyticsDashboard(
+            @PageableDefault(size = 50, sort = "name") Pageable tenantPageable) {
+        SuperAdminDashboardDTO dashboardData = dashboardService.getDashboardData(tenantPageable);
         return ResponseEntity.ok(dashboardData);
     }
 
+    @GetMapping("/tenant-activity")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Get Per-Tenant Activity (Paginated)",
+            description = "Retrieves user and pass counters for each tenant, one page at a time. " +
+                    "Supports sorting and pagination via query parameters (e.g., ?page=0&size=50&sort=name,asc)")
+    public ResponseEntity<Page<TenantActivityDTO>> getTenantActivity(
+            @PageableDefault(size = 50, sort = "name") Pageable pageable) {
+        return ResponseEntity.ok(dashboardService.getTenantActivity(pageable));
+    }
+
     // The createTenantAndAdmin method remains the same
     @PostMapping("/tenants")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
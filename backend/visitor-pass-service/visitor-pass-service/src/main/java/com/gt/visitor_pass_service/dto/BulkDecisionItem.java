@@ -0,0 +1,21 @@
+package com.gt.visitor_pass_service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class BulkDecisionItem {
+    @NotNull(message = "Pass ID cannot be null")
+    private Long passId;
+
+    @NotNull(message = "Decision cannot be null")
+    private Decision decision;
+
+    // Required when the decision is REJECT
+    private String reason;
+
+    public enum Decision {
+        APPROVE,
+        REJECT
+    }
+}
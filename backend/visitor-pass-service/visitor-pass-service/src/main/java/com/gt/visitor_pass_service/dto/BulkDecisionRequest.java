@@ -0,0 +1,13 @@
+package com.gt.visitor_pass_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkDecisionRequest {
+    @NotEmpty(message = "At least one decision is required")
+    private List<@Valid BulkDecisionItem> decisions;
+}
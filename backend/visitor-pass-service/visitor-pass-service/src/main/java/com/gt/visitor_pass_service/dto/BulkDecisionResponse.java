@@ -0,0 +1,15 @@
+package com.gt.visitor_pass_service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkDecisionResponse {
+    private int approved;
+    private int rejected;
+    private int failed;
+    private List<BulkDecisionResult> results;
+}
@@ -0,0 +1,15 @@
+package com.gt.visitor_pass_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDecisionResult {
+    private Long passId;
+    private boolean success;
+    private String status; // the pass status after the request, if the pass was found
+    private String error;
+}
@@ -3,6 +3,7 @@ package com.gt.visitor_pass_service.dto;
 import lombok.Data;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Data
@@ -16,5 +17,7 @@ public class CreatePassRequest {
 
     private String visitorPhone;
     private String purpose;
+
+    @NotNull(message = "Visit date and time cannot be null")
     private LocalDateTime visitDateTime;
 }
\ No newline at end of file
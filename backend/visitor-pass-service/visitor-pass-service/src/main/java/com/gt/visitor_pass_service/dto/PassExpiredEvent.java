@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -16,5 +17,6 @@ public class PassExpiredEvent implements Serializable {
     private LocalDateTime visitDateTime;
     private String employeeEmail;
     private String tenantAdminEmail; // Can be null if no admin is found
+    private List<String> tenantAdminEmails; // Every active admin of the tenant; may be empty
     private Long tenantId;
 }
\ No newline at end of file
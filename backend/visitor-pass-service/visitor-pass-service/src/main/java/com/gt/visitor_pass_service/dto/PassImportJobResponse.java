@@ -0,0 +1,24 @@
+package com.gt.visitor_pass_service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class PassImportJobResponse {
+    private Long id;
+    private Long tenantId;
+    private String format;
+    private String status;
+    private int rowsRead;
+    private int rowsImported;
+    private int rowsFailed;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+    private List<PassImportRowError> errors; // only in the single-job view, up to the recorded limit
+}
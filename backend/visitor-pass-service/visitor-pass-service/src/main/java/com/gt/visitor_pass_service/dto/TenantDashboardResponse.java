@@ -13,4 +13,5 @@ public class TenantDashboardResponse {
     private List<VisitorPassResponse> recentPasses; // Last 10 passes
     private List<AuditLog> recentPassActivity; // Last 10 pass-related business events
     private List<EmailAuditLogResponse> recentEmailActivity; // Last 10 email events
+    private boolean emailActivityAvailable; // False when the notification-service could not be reached in time
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.gt.visitor_pass_service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class VisitorPassSliceResponse {
+    private List<VisitorPassResponse> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor; // Opaque token for the next slice; null on the last one
+}
@@ -0,0 +1,11 @@
+package com.gt.visitor_pass_service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PassStateConflictException extends RuntimeException {
+    public PassStateConflictException(String message) {
+        super(message);
+    }
+}
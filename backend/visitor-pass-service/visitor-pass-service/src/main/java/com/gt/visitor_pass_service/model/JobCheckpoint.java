@@ -0,0 +1,24 @@
+package com.gt.visitor_pass_service.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress marker for long-running scheduled jobs, so an interrupted run can resume
+ * from the last committed chunk instead of starting over.
+ */
+@Data
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+    @Id
+    private String jobName;
+    private LocalDate runDate; // The business day the checkpoint belongs to
+    private Long lastProcessedId;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.gt.visitor_pass_service.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A domain event waiting to be published to RabbitMQ.
+ * Rows are written in the same transaction as the change they describe and
+ * relayed to the broker by OutboxRelay, which sets publishedAt once confirmed.
+ * Failed deliveries are retried from nextAttemptAt; failedAt marks an event parked after too many attempts.
+ */
+@Data
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_published_id", columnList = "published_at, id")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String exchange;
+    private String routingKey;
+    @Lob
+    @Column(columnDefinition = "LONGTEXT")
+    private String payload; // JSON body, exactly as produced by the AMQP message converter
+    private String payloadType; // __TypeId__ header expected by consumers
+    private int attempts;
+    private String lastError;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime failedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,19 @@
+package com.gt.visitor_pass_service.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(name = "pass_import_errors", indexes = {
+        @Index(name = "idx_import_error_job_line", columnList = "job_id, line_number")
+})
+public class PassImportError {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long jobId;
+    private int lineNumber;
+    @Column(length = 500)
+    private String message;
+}
@@ -0,0 +1,33 @@
+package com.gt.visitor_pass_service.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bulk pass import and its progress. Counters are committed after every batch,
+ * so the job can be followed while the upload is still being processed.
+ */
+@Data
+@Entity
+@Table(name = "pass_import_jobs", indexes = {
+        @Index(name = "idx_import_tenant_started_at", columnList = "tenant_id, started_at")
+})
+public class PassImportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long tenantId;
+    private Long createdByUserId;
+    private String format; // CSV or NDJSON
+    private String status; // RUNNING, COMPLETED, FAILED
+    private int rowsRead;
+    private int rowsImported;
+    private int rowsFailed;
+    @Column(length = 1000)
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
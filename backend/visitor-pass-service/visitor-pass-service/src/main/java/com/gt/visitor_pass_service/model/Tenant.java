@@ -18,4 +18,7 @@ public class Tenant {
     // --- NEW FIELDS for Auditing and Info ---
     private String createdBy; // Name of the Super Admin who created it
     private LocalDateTime createdAt;
+
+    // IANA zone of the site (e.g. "Asia/Kolkata"); null means the server's zone
+    private String timeZone;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.gt.visitor_pass_service.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup of how many passes of a tenant are in each status, per visit date.
+ * Maintained incrementally by every pass state transition and rebuilt from
+ * visitor_passes by {@code PassStatsService.rebuild()}.
+ */
+@Data
+@Entity
+@Table(name = "tenant_daily_pass_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_pass_stats_tenant_date_status", columnNames = {"tenant_id", "stat_date", "status"}),
+        indexes = @Index(name = "idx_pass_stats_date_status", columnList = "stat_date, status"))
+public class TenantDailyPassStat {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate; // The visit date (site-local) of the counted passes
+    @Column(nullable = false)
+    private String status;
+    private long passCount;
+}
@@ -2,11 +2,21 @@ package com.gt.visitor_pass_service.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "visitor_passes")
+@DynamicUpdate
+@Table(name = "visitor_passes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_pass_tenant_pass_code", columnNames = {"tenant_id", "pass_code"})
+}, indexes = {
+        @Index(name = "idx_pass_tenant_status_visit", columnList = "tenant_id, status, visit_date_time"),
+        @Index(name = "idx_pass_status_visit", columnList = "status, visit_date_time"),
+        @Index(name = "idx_pass_created_by_status", columnList = "created_by, status"),
+        @Index(name = "idx_pass_tenant_created_at", columnList = "tenant_id, created_at, id"),
+        @Index(name = "idx_pass_created_by_created_at", columnList = "created_by, created_at, id")
+})
 public class VisitorPass {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,13 +30,16 @@ public class VisitorPass {
     private String purpose;
     private LocalDateTime visitDateTime;
     private String passCode;
-    private String status; // PENDING, APPROVED, REJECTED, CHECKED_IN, CHECKED_OUT
-    @ManyToOne
+    private String status; // name of a PassStatus
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by")
     private User createdBy;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "approved_by")
     private User approvedBy;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
 }
\ No newline at end of file
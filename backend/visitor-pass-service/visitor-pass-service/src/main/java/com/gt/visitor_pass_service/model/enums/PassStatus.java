@@ -1,8 +1,30 @@
 package com.gt.visitor_pass_service.model.enums;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The lifecycle of a visitor pass. Statuses are stored by name in visitor_passes.status;
+ * every change of status must be one of the transitions allowed here.
+ */
 public enum PassStatus {
     PENDING,
     APPROVED,
     REJECTED,
     CHECKED_IN,
-    CHECKED_OUT
-}
\ No newline at end of file
+    CHECKED_OUT,
+    EXPIRED;
+
+    public Set<PassStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(APPROVED, REJECTED);
+            case APPROVED -> EnumSet.of(CHECKED_IN, EXPIRED);
+            case CHECKED_IN -> EnumSet.of(CHECKED_OUT);
+            case REJECTED, CHECKED_OUT, EXPIRED -> EnumSet.noneOf(PassStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(PassStatus target) {
+        return nextStatuses().contains(target);
+    }
+}
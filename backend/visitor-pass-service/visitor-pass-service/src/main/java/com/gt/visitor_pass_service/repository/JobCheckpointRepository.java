@@ -0,0 +1,7 @@
+package com.gt.visitor_pass_service.repository;
+
+import com.gt.visitor_pass_service.model.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -0,0 +1,11 @@
+package com.gt.visitor_pass_service.repository;
+
+import com.gt.visitor_pass_service.model.PassImportError;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PassImportErrorRepository extends JpaRepository<PassImportError, Long> {
+    List<PassImportError> findByJobIdOrderByLineNumber(Long jobId, Pageable pageable);
+}
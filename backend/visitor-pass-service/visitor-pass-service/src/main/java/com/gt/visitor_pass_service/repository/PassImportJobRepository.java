@@ -0,0 +1,13 @@
+package com.gt.visitor_pass_service.repository;
+
+import com.gt.visitor_pass_service.model.PassImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PassImportJobRepository extends JpaRepository<PassImportJob, Long> {
+    Optional<PassImportJob> findByIdAndTenantId(Long id, Long tenantId);
+
+    List<PassImportJob> findTop20ByTenantIdOrderByStartedAtDesc(Long tenantId);
+}
@@ -0,0 +1,9 @@
+package com.gt.visitor_pass_service.repository;
+
+/**
+ * A (tenantId, count) row returned by the per-tenant GROUP BY queries.
+ */
+public interface TenantCount {
+    Long getTenantId();
+    long getTotal();
+}
@@ -0,0 +1,42 @@
+package com.gt.visitor_pass_service.repository;
+
+import com.gt.visitor_pass_service.model.TenantDailyPassStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface TenantDailyPassStatRepository extends JpaRepository<TenantDailyPassStat, Long> {
+
+    // FOR TENANT ADMIN DASHBOARD
+    @Query("SELECT " +
+            "COALESCE(SUM(CASE WHEN s.status = 'PENDING' THEN s.passCount ELSE 0 END), 0) AS pendingPasses, " +
+            "COALESCE(SUM(CASE WHEN s.status = 'APPROVED' AND s.statDate = :today THEN s.passCount ELSE 0 END), 0) AS approvedPassesToday, " +
+            "COALESCE(SUM(CASE WHEN s.status = 'CHECKED_IN' THEN s.passCount ELSE 0 END), 0) AS checkedInVisitors, " +
+            "COALESCE(SUM(CASE WHEN s.status IN ('CHECKED_OUT', 'EXPIRED') AND s.statDate = :today THEN s.passCount ELSE 0 END), 0) AS completedPassesToday " +
+            "FROM TenantDailyPassStat s WHERE s.tenantId = :tenantId " +
+            "AND (s.status IN ('PENDING', 'CHECKED_IN') OR s.statDate = :today)")
+    TenantPassCounts getTenantDashboardCounts(Long tenantId, LocalDate today);
+
+    // FOR SUPER ADMIN DASHBOARD
+    @Query("SELECT s.tenantId AS tenantId, SUM(s.passCount) AS total FROM TenantDailyPassStat s WHERE s.tenantId IN :tenantIds GROUP BY s.tenantId")
+    List<TenantCount> sumGroupedByTenant(Collection<Long> tenantIds);
+
+    @Query("SELECT s.tenantId AS tenantId, SUM(s.passCount) AS total FROM TenantDailyPassStat s WHERE s.tenantId IN :tenantIds AND s.statDate = :day GROUP BY s.tenantId")
+    List<TenantCount> sumGroupedByTenantForDay(Collection<Long> tenantIds, LocalDate day);
+
+    @Query("SELECT COALESCE(SUM(s.passCount), 0) FROM TenantDailyPassStat s")
+    long sumAllPasses();
+
+    @Query("SELECT COALESCE(SUM(s.passCount), 0) FROM TenantDailyPassStat s WHERE s.statDate = :day AND s.status IN ('APPROVED', 'CHECKED_IN')")
+    long sumActivePassesForDay(LocalDate day);
+
+    interface TenantPassCounts {
+        long getPendingPasses();
+        long getApprovedPassesToday();
+        long getCheckedInVisitors();
+        long getCompletedPassesToday();
+    }
+}
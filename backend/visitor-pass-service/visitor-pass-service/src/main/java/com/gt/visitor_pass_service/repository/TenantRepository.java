@@ -1,7 +1,16 @@
 package com.gt.visitor_pass_service.repository;
 
 import com.gt.visitor_pass_service.model.Tenant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface TenantRepository extends JpaRepository<Tenant, Long> {
+    Page<Tenant> findByNameNot(String name, Pageable pageable);
+
+    @Query("SELECT t.id FROM Tenant t")
+    List<Long> findAllIds();
 }
\ No newline at end of file
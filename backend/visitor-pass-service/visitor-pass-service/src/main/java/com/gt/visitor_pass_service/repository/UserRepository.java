@@ -2,9 +2,11 @@ package com.gt.visitor_pass_service.repository;
 
 import com.gt.visitor_pass_service.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Page; // <-- Import Page
 import org.springframework.data.domain.Pageable; // <-- Import Pageable
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,5 +18,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     long countByTenantId(Long tenantId);
 
+    @Query("SELECT u.tenant.id AS tenantId, COUNT(u) AS total FROM User u WHERE u.tenant.id IN :tenantIds GROUP BY u.tenant.id")
+    List<TenantCount> countGroupedByTenant(Collection<Long> tenantIds);
+
     Page<User> findByTenantId(Long tenantId, Pageable pageable);
+
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false")
+    List<Long> findInactiveUserIds();
+
+    // Lightweight (tenantId, email) rows for every active tenant admin, without loading User entities
+    @Query("SELECT u.tenant.id AS tenantId, u.email AS email FROM User u WHERE u.role = 'ROLE_TENANT_ADMIN' AND u.isActive = true AND u.tenant IS NOT NULL")
+    List<TenantAdminEmail> findActiveTenantAdminEmails();
+
+    interface TenantAdminEmail {
+        Long getTenantId();
+        String getEmail();
+    }
 }
\ No newline at end of file
@@ -1,48 +1,167 @@
 package com.gt.visitor_pass_service.repository;
 
+import com.gt.visitor_pass_service.dto.SecurityDashboardResponse;
+import com.gt.visitor_pass_service.model.User;
 import com.gt.visitor_pass_service.model.VisitorPass;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import java.time.LocalDate;
+import org.springframework.data.domain.Slice;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import java.util.Optional;
 
 public interface VisitorPassRepository extends JpaRepository<VisitorPass, Long> {
 
+    // Lookups that are mapped to VisitorPassResponse fetch the (lazy) creator in the same
+    // statement, so mapping a page of passes never triggers one extra select per row.
+    @Override
+    @EntityGraph(attributePaths = "createdBy")
+    Optional<VisitorPass> findById(Long id);
+
+    @EntityGraph(attributePaths = "createdBy")
     Page<VisitorPass> findByTenantId(Long tenantId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "createdBy")
     Page<VisitorPass> findByCreatedById(Long userId, Pageable pageable);
 
+    // KEYSET PAGINATION: seek on (createdAt, id) descending; a Slice fetches one extra row instead of running a count.
+    // The redundant createdAt <= :createdAt bound lets MySQL scan the (owner, created_at, id) index as a range.
+    // Legacy rows without createdAt sort last (MySQL orders NULL lowest) and are paged through on id alone.
+    @EntityGraph(attributePaths = "createdBy")
+    @Query("SELECT vp FROM VisitorPass vp WHERE vp.tenant.id = :tenantId ORDER BY vp.createdAt DESC, vp.id DESC")
+    Slice<VisitorPass> findFirstSliceByTenantId(Long tenantId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "createdBy")
+    @Query("SELECT vp FROM VisitorPass vp WHERE vp.tenant.id = :tenantId " +
+            "AND ((vp.createdAt <= :createdAt AND (vp.createdAt < :createdAt OR vp.id < :id)) OR vp.createdAt IS NULL) " +
+            "ORDER BY vp.createdAt DESC, vp.id DESC")
+    Slice<VisitorPass> findSliceByTenantIdBefore(Long tenantId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "createdBy")
+    @Query("SELECT vp FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND vp.createdAt IS NULL AND vp.id < :id ORDER BY vp.id DESC")
+    Slice<VisitorPass> findUndatedSliceByTenantIdBefore(Long tenantId, Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "createdBy")
+    @Query("SELECT vp FROM VisitorPass vp WHERE vp.createdBy.id = :userId ORDER BY vp.createdAt DESC, vp.id DESC")
+    Slice<VisitorPass> findFirstSliceByCreatedById(Long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "createdBy")
+    @Query("SELECT vp FROM VisitorPass vp WHERE vp.createdBy.id = :userId " +
+            "AND ((vp.createdAt <= :createdAt AND (vp.createdAt < :createdAt OR vp.id < :id)) OR vp.createdAt IS NULL) " +
+            "ORDER BY vp.createdAt DESC, vp.id DESC")
+    Slice<VisitorPass> findSliceByCreatedByIdBefore(Long userId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "createdBy")
+    @Query("SELECT vp FROM VisitorPass vp WHERE vp.createdBy.id = :userId AND vp.createdAt IS NULL AND vp.id < :id ORDER BY vp.id DESC")
+    Slice<VisitorPass> findUndatedSliceByCreatedByIdBefore(Long userId, Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "createdBy")
     Optional<VisitorPass> findByTenantIdAndPassCode(Long tenantId, String passCode);
 
-    @Query("SELECT vp FROM VisitorPass vp WHERE vp.status = 'APPROVED' AND DATE(vp.visitDateTime) < CURRENT_DATE")
-    List<VisitorPass> findOverdueApprovedPasses();
-    // FOR SECURITY DASHBOARD
-    @Query("SELECT vp FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND DATE(vp.visitDateTime) = :date AND (vp.status = 'APPROVED' OR vp.status = 'CHECKED_IN')")
-    List<VisitorPass> findTodaysVisitorsByTenant(Long tenantId, LocalDate date);
-
-    long countByTenantIdAndStatus(Long tenantId, String status);
-
-    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND DATE(vp.visitDateTime) = CURRENT_DATE AND vp.status = 'APPROVED'")
-    long countApprovedForToday(Long tenantId);
-
-    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND DATE(vp.visitDateTime) = CURRENT_DATE AND (vp.status = 'CHECKED_OUT' OR vp.status = 'EXPIRED')")
-    long countCompletedForToday(Long tenantId);
-
+    @Query("SELECT vp.passCode FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND vp.passCode IN :passCodes")
+    List<String> findExistingPassCodes(Long tenantId, Collection<String> passCodes);
+
+    // FOR BULK IMPORT: the generated IDs of passes inserted over JDBC, found through their unique codes
+    @Query("SELECT vp.id AS id, vp.passCode AS passCode FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND vp.passCode IN :passCodes")
+    List<PassCodeId> findIdsByPassCodes(Long tenantId, Collection<String> passCodes);
+
+    // PASS STATE MACHINE: a transition only applies while the pass still has the expected status, so of two
+    // concurrent transitions exactly one wins. Only the changed columns are written and the version is bumped.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VisitorPass vp SET vp.status = :toStatus, vp.updatedAt = :updatedAt, vp.version = vp.version + 1 " +
+            "WHERE vp.id = :id AND vp.status = :fromStatus")
+    int transitionStatus(Long id, String fromStatus, String toStatus, LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VisitorPass vp SET vp.status = :toStatus, vp.approvedBy = :approver, vp.updatedAt = :updatedAt, vp.version = vp.version + 1 " +
+            "WHERE vp.id = :id AND vp.status = :fromStatus")
+    int transitionStatusByApprover(Long id, String fromStatus, String toStatus, User approver, LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VisitorPass vp SET vp.status = :toStatus, vp.approvedBy = :approver, vp.updatedAt = :updatedAt, vp.version = vp.version + 1 " +
+            "WHERE vp.id IN :ids AND vp.status = :fromStatus")
+    int transitionStatusesByApprover(Collection<Long> ids, String fromStatus, String toStatus, User approver, LocalDateTime updatedAt);
+
+    // FOR BULK DECISIONS: only passes of the tenant are found, which checks ownership of the whole request in one query
+    @EntityGraph(attributePaths = "createdBy")
+    List<VisitorPass> findByTenantIdAndIdIn(Long tenantId, Collection<Long> ids);
+
+    // FOR THE EXPIRY JOB: keyset-paginated on id so each chunk is a cheap index range scan;
+    // the cutoff is local midnight of the given tenants, which all share one time zone
+    @Query("SELECT vp FROM VisitorPass vp JOIN FETCH vp.createdBy WHERE vp.tenant.id IN :tenantIds AND vp.status = 'APPROVED' AND vp.visitDateTime < :cutoff AND vp.id > :afterId ORDER BY vp.id")
+    List<VisitorPass> findOverdueApprovedPasses(Collection<Long> tenantIds, LocalDateTime cutoff, Long afterId, Pageable pageable);
+
+    // Only passes still APPROVED are expired, so a concurrent check-in is never overwritten
+    @Modifying
+    @Query("UPDATE VisitorPass vp SET vp.status = 'EXPIRED', vp.updatedAt = :updatedAt, vp.version = vp.version + 1 WHERE vp.id IN :ids AND vp.status = 'APPROVED'")
+    int expireApprovedPasses(List<Long> ids, LocalDateTime updatedAt);
+
+    @Query("SELECT vp.id FROM VisitorPass vp WHERE vp.id IN :ids AND vp.status = :status")
+    List<Long> findIdsByIdInAndStatus(Collection<Long> ids, String status);
+
+    // FOR BULK DECISIONS: the passes one transitionStatusesByApprover call moved, told apart from a concurrent
+    // request's by the approver and timestamp it wrote
+    @Query("SELECT vp.id FROM VisitorPass vp WHERE vp.id IN :ids AND vp.status = :status AND vp.approvedBy = :approver AND vp.updatedAt = :updatedAt")
+    List<Long> findIdsMovedBy(Collection<Long> ids, String status, User approver, LocalDateTime updatedAt);
+    // FOR SECURITY DASHBOARD: projected straight into the response DTO in a single statement
+    @Query("SELECT new com.gt.visitor_pass_service.dto.SecurityDashboardResponse(" +
+            "vp.id, vp.visitorName, vp.passCode, vp.status, vp.visitDateTime, cb.name) " +
+            "FROM VisitorPass vp JOIN vp.createdBy cb " +
+            "WHERE vp.tenant.id = :tenantId AND vp.visitDateTime >= :dayStart AND vp.visitDateTime < :dayEnd AND vp.status IN ('APPROVED', 'CHECKED_IN')")
+    List<SecurityDashboardResponse> findTodaysVisitorsByTenant(Long tenantId, LocalDateTime dayStart, LocalDateTime dayEnd);
+
+    // FOR THE PASS-CODE INDEX: today's scannable passes of a tenant, projected without loading entities
+    @Query("SELECT vp.id AS id, vp.passCode AS passCode, vp.visitorName AS visitorName, vp.visitorEmail AS visitorEmail, " +
+            "vp.purpose AS purpose, vp.status AS status, vp.visitDateTime AS visitDateTime, cb.name AS createdByName " +
+            "FROM VisitorPass vp JOIN vp.createdBy cb " +
+            "WHERE vp.tenant.id = :tenantId AND vp.visitDateTime >= :dayStart AND vp.visitDateTime < :dayEnd AND vp.status IN ('APPROVED', 'CHECKED_IN')")
+    List<ScannablePass> findScannablePasses(Long tenantId, LocalDateTime dayStart, LocalDateTime dayEnd);
+
+    @EntityGraph(attributePaths = "createdBy")
     List<VisitorPass> findTop10ByTenantIdOrderByCreatedAtDesc(Long tenantId);
 
-    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE DATE(vp.visitDateTime) = CURRENT_DATE AND (vp.status = 'APPROVED' OR vp.status = 'CHECKED_IN')")
-    long countActivePassesForToday();
-
     long countByTenantId(Long tenantId);
 
-    @Query("SELECT COUNT(vp) FROM VisitorPass vp WHERE vp.tenant.id = :tenantId AND DATE(vp.visitDateTime) = CURRENT_DATE")
-    long countPassesForTenantToday(Long tenantId);
-
+    @EntityGraph(attributePaths = "createdBy")
     List<VisitorPass> findTop10ByOrderByCreatedAtDesc();
 
-    long countByCreatedByIdAndStatus(Long userId, String status);
+    // FOR USER DASHBOARD: the user's own passes plus, when approvalTenantId is not null,
+    // the pending passes of that tenant awaiting approval
+    @Query("SELECT " +
+            "COALESCE(SUM(CASE WHEN vp.createdBy.id = :userId AND vp.status = 'PENDING' THEN 1 ELSE 0 END), 0) AS myPendingPasses, " +
+            "COALESCE(SUM(CASE WHEN vp.createdBy.id = :userId AND vp.status = 'APPROVED' THEN 1 ELSE 0 END), 0) AS myApprovedPasses, " +
+            "COALESCE(SUM(CASE WHEN vp.createdBy.id = :userId AND vp.status = 'CHECKED_OUT' THEN 1 ELSE 0 END), 0) AS myCompletedPasses, " +
+            "COALESCE(SUM(CASE WHEN vp.tenant.id = :approvalTenantId AND vp.status = 'PENDING' THEN 1 ELSE 0 END), 0) AS passesAwaitingApproval " +
+            "FROM VisitorPass vp WHERE vp.createdBy.id = :userId " +
+            "OR (vp.tenant.id = :approvalTenantId AND vp.status = 'PENDING')")
+    UserPassCounts getUserDashboardCounts(Long userId, Long approvalTenantId);
+
+    interface PassCodeId {
+        Long getId();
+        String getPassCode();
+    }
+
+    interface ScannablePass {
+        Long getId();
+        String getPassCode();
+        String getVisitorName();
+        String getVisitorEmail();
+        String getPurpose();
+        String getStatus();
+        LocalDateTime getVisitDateTime();
+        String getCreatedByName();
+    }
+
+    interface UserPassCounts {
+        long getMyPendingPasses();
+        long getMyApprovedPasses();
+        long getMyCompletedPasses();
+        long getPassesAwaitingApproval();
+    }
 }
\ No newline at end of file
@@ -1,27 +1,118 @@
 package com.gt.visitor_pass_service.service;
 
 import com.gt.visitor_pass_service.model.AuditLog;
-import com.gt.visitor_pass_service.repository.AuditLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 public class AuditService {
 
-    private final AuditLogRepository auditLogRepository;
+    private static final String INSERT_AUDIT_LOG_SQL =
+            "INSERT INTO audit_logs (action_description, user_id, tenant_id, pass_id, timestamp) VALUES (?, ?, ?, ?, ?)";
 
-    public AuditService(AuditLogRepository auditLogRepository) {
-        this.auditLogRepository = auditLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate separateTransaction;
+    private final boolean transactionalMode;
+    private final AuditWriteBuffer writeBuffer;
+
+    public AuditService(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.audit.mode:async}") String mode,
+                        @Value("${app.audit.buffer-capacity:10000}") int bufferCapacity,
+                        @Value("${app.audit.flush-size:200}") int flushSize,
+                        @Value("${app.audit.flush-interval-ms:500}") long flushIntervalMs,
+                        @Value("${app.audit.enqueue-timeout-ms:50}") long enqueueTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Buffered entries can be written from afterCommit, where the finished transaction's
+        // connection is still bound; a new transaction makes sure the INSERT is really committed
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionalMode = "transactional".equalsIgnoreCase(mode);
+        this.writeBuffer = transactionalMode ? null
+                : new AuditWriteBuffer(bufferCapacity, flushSize, flushIntervalMs, enqueueTimeoutMs, this::logEventsInNewTransaction, meterRegistry);
+    }
+
+    @PostConstruct
+    void startWriter() {
+        if (writeBuffer != null) {
+            writeBuffer.start();
+        }
     }
 
+    @PreDestroy
+    void flushOnShutdown() {
+        if (writeBuffer != null) {
+            writeBuffer.close();
+        }
+    }
+
+    /**
+     * Records an audit entry.
+     * In the default "async" mode the entry is handed to a write-behind buffer once the caller's
+     * transaction commits (or immediately when there is none), so requests never wait on the INSERT.
+     * In "transactional" mode it is written inside the caller's transaction and commits or rolls back
+     * with it, trading that latency for a guarantee that no entry is ever lost.
+     */
     public void logEvent(String action, Long userId, Long tenantId, Long passId) {
+        AuditLog log = buildEvent(action, userId, tenantId, passId);
+        if (transactionalMode) {
+            logEvents(List.of(log));
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writeBuffer.enqueue(log);
+                }
+            });
+        } else {
+            writeBuffer.enqueue(log);
+        }
+    }
+
+    /**
+     * Writes many audit entries as a single JDBC batch.
+     * Used by bulk operations where one INSERT per entry would dominate the run time.
+     */
+    public void logEvents(List<AuditLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG_SQL, logs, logs.size(), (ps, log) -> {
+            ps.setString(1, log.getActionDescription());
+            ps.setObject(2, log.getUserId(), Types.BIGINT);
+            ps.setObject(3, log.getTenantId(), Types.BIGINT);
+            ps.setObject(4, log.getPassId(), Types.BIGINT);
+            ps.setObject(5, log.getTimestamp());
+        });
+    }
+
+    private void logEventsInNewTransaction(List<AuditLog> logs) {
+        separateTransaction.executeWithoutResult(status -> logEvents(logs));
+    }
+
+    public AuditLog buildEvent(String action, Long userId, Long tenantId, Long passId) {
         AuditLog log = new AuditLog();
         log.setActionDescription(action);
         log.setUserId(userId);
         log.setTenantId(tenantId);
         log.setPassId(passId);
         log.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(log);
+        return log;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,186 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.model.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bounded write-behind buffer for audit entries.
+ * A single background thread drains the queue and hands batches of up to flushSize entries
+ * to the sink, at least every flushInterval. When the queue is full, producers wait briefly
+ * and then write their entry themselves, so a burst slows callers down instead of losing entries.
+ * A batch that cannot be written (e.g. the database is briefly unavailable) is parked and retried
+ * by the writer with exponential backoff before any newer batch is written.
+ */
+class AuditWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditWriteBuffer.class);
+
+    private static final long INITIAL_RETRY_BACKOFF_MS = 500;
+    private static final long MAX_RETRY_BACKOFF_MS = 30_000;
+
+    private final BlockingQueue<AuditLog> queue;
+    private final Queue<List<AuditLog>> parked = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<AuditLog>> sink;
+    private final int flushSize;
+    private final long flushIntervalMs;
+    private final long enqueueTimeoutMs;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter writtenCounter;
+    private final Counter overflowCounter;
+    private final Counter failureCounter;
+    private final Timer flushTimer;
+
+    AuditWriteBuffer(int capacity, int flushSize, long flushIntervalMs, long enqueueTimeoutMs,
+                     Consumer<List<AuditLog>> sink, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sink = sink;
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.writtenCounter = meterRegistry.counter("audit.events.written");
+        this.overflowCounter = meterRegistry.counter("audit.events.overflow");
+        this.failureCounter = meterRegistry.counter("audit.write.failures");
+        this.flushTimer = meterRegistry.timer("audit.flush.latency");
+        meterRegistry.gauge("audit.buffer.depth", queue, BlockingQueue::size);
+        meterRegistry.gauge("audit.buffer.parked", parked, batches -> batches.stream().mapToInt(List::size).sum());
+
+        this.writer = new Thread(this::run, "audit-writer");
+        this.writer.setDaemon(true);
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    void enqueue(AuditLog log) {
+        try {
+            if (running && queue.offer(log, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Buffer full (or shutting down): write on the caller's thread rather than drop the entry
+        overflowCounter.increment();
+        List<AuditLog> single = List.of(log);
+        if (!write(single)) {
+            parked.add(single);
+        }
+    }
+
+    /**
+     * Stops the writer and flushes everything still buffered.
+     */
+    void close() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<AuditLog> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            logger.info("Flushing {} buffered audit entries on shutdown.", remaining.size());
+            flush(remaining);
+        }
+        if (!retryParked()) {
+            // Last resort: keep the entries in the application log rather than lose them silently
+            for (List<AuditLog> batch : parked) {
+                batch.forEach(log -> logger.error("Audit entry could not be persisted: {}", log));
+            }
+            parked.clear();
+        }
+    }
+
+    private void run() {
+        List<AuditLog> batch = new ArrayList<>(flushSize);
+        long retryBackoffMs = INITIAL_RETRY_BACKOFF_MS;
+        while (running) {
+            try {
+                if (!retryParked()) {
+                    // Still failing: wait before the next attempt while new entries queue up
+                    Thread.sleep(retryBackoffMs);
+                    retryBackoffMs = Math.min(retryBackoffMs * 2, MAX_RETRY_BACKOFF_MS);
+                    continue;
+                }
+                retryBackoffMs = INITIAL_RETRY_BACKOFF_MS;
+                AuditLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushIntervalMs;
+                // Keep collecting until the batch is full or the flush interval has passed
+                while (batch.size() < flushSize) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long wait = deadline - System.currentTimeMillis();
+                    if (batch.size() >= flushSize || wait <= 0) {
+                        break;
+                    }
+                    AuditLog next = queue.poll(wait, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown requested; anything collected so far is flushed below
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch = new ArrayList<>(flushSize);
+            }
+        }
+    }
+
+    private void flush(List<AuditLog> batch) {
+        if (!write(batch)) {
+            parked.add(batch);
+        }
+    }
+
+    /**
+     * Writes the parked batches, oldest first.
+     *
+     * @return true if none are left.
+     */
+    private boolean retryParked() {
+        List<AuditLog> batch;
+        while ((batch = parked.peek()) != null) {
+            if (!write(batch)) {
+                return false;
+            }
+            parked.poll();
+        }
+        return true;
+    }
+
+    private boolean write(List<AuditLog> batch) {
+        try {
+            flushTimer.record(() -> sink.accept(batch));
+            writtenCounter.increment(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            failureCounter.increment(batch.size());
+            logger.error("Failed to write {} audit entries; they will be retried.", batch.size(), e);
+            return false;
+        }
+    }
+}
@@ -11,7 +11,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import com.gt.visitor_pass_service.exception.AccessDeniedException;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 import com.gt.visitor_pass_service.dto.PasswordResetRequestEvent;
@@ -26,19 +25,19 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
     private final JwtTokenProvider tokenProvider;
 
     public AuthService(AuthenticationManager authenticationManager,
                        UserRepository userRepository,
                        JwtTokenProvider tokenProvider,
                        PasswordEncoder passwordEncoder,
-                       RabbitTemplate rabbitTemplate) {
+                       OutboxService outboxService) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.tokenProvider = tokenProvider;
         this.passwordEncoder = passwordEncoder;
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxService = outboxService;
     }
 
     /**
@@ -83,7 +82,7 @@ public class AuthService {
                     "http://localhost:4200/reset-password" // Your frontend URL
             );
 
-            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_PASSWORD_RESET, event);
+            outboxService.publish(RabbitMQConfig.ROUTING_KEY_PASSWORD_RESET, event);
         });
         // Note: We deliberately do nothing if the user is not found.
         // This prevents attackers from checking which emails are registered.
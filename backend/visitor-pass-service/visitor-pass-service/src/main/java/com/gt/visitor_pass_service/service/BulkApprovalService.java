@@ -0,0 +1,180 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.config.RabbitMQConfig;
+import com.gt.visitor_pass_service.dto.BulkDecisionItem;
+import com.gt.visitor_pass_service.dto.BulkDecisionResponse;
+import com.gt.visitor_pass_service.dto.BulkDecisionResult;
+import com.gt.visitor_pass_service.dto.PassApprovedEvent;
+import com.gt.visitor_pass_service.dto.PassRejectedEvent;
+import com.gt.visitor_pass_service.exception.BadRequestException;
+import com.gt.visitor_pass_service.exception.ResourceNotFoundException;
+import com.gt.visitor_pass_service.model.AuditLog;
+import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.repository.UserRepository;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Approves and rejects many passes of a tenant in one transaction: one query loads the passes,
+ * one conditional UPDATE per decision applies them, and audit entries, statistics and events
+ * are written in batches. Each item gets its own result, so one bad item does not fail the rest.
+ */
+@Service
+public class BulkApprovalService {
+
+    private final VisitorPassRepository passRepository;
+    private final UserRepository userRepository;
+    private final AuditService auditService;
+    private final OutboxService outboxService;
+    private final PassStatsService passStatsService;
+    private final PassCodeIndex passCodeIndex;
+    private final int maxItems;
+
+    public BulkApprovalService(VisitorPassRepository passRepository,
+                               UserRepository userRepository,
+                               AuditService auditService,
+                               OutboxService outboxService,
+                               PassStatsService passStatsService,
+                               PassCodeIndex passCodeIndex,
+                               @Value("${app.approvals.bulk.max-items:500}") int maxItems) {
+        this.passRepository = passRepository;
+        this.userRepository = userRepository;
+        this.auditService = auditService;
+        this.outboxService = outboxService;
+        this.passStatsService = passStatsService;
+        this.passCodeIndex = passCodeIndex;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * @param approverId The caller's user ID from the verified token; when null the approver is looked up by email.
+     */
+    @Transactional
+    public BulkDecisionResponse decide(Long tenantId, List<BulkDecisionItem> items, Long approverId, String approverEmail) {
+        if (items.size() > maxItems) {
+            throw new BadRequestException("At most " + maxItems + " decisions can be submitted at once.");
+        }
+        User approver = approverId != null
+                ? userRepository.getReferenceById(approverId)
+                : userRepository.findByEmail(approverEmail)
+                        .orElseThrow(() -> new ResourceNotFoundException("User", "email", approverEmail));
+
+        Set<Long> requestedIds = items.stream().map(BulkDecisionItem::getPassId).collect(Collectors.toSet());
+        Map<Long, VisitorPass> passes = passRepository.findByTenantIdAndIdIn(tenantId, requestedIds).stream()
+                .collect(Collectors.toMap(VisitorPass::getId, Function.identity()));
+
+        Map<Long, BulkDecisionResult> results = new LinkedHashMap<>();
+        Map<PassStatus, List<VisitorPass>> accepted = new HashMap<>();
+        Map<Long, String> reasons = new HashMap<>();
+        for (BulkDecisionItem item : items) {
+            Long passId = item.getPassId();
+            if (results.containsKey(passId)) {
+                // Only the first decision for a pass is applied
+                continue;
+            }
+            VisitorPass pass = passes.get(passId);
+            PassStatus target = item.getDecision() == BulkDecisionItem.Decision.APPROVE ? PassStatus.APPROVED : PassStatus.REJECTED;
+            if (pass == null) {
+                results.put(passId, failure(passId, null, "Pass not found for this tenant."));
+            } else if (!PassStatus.valueOf(pass.getStatus()).canTransitionTo(target)) {
+                results.put(passId, failure(passId, pass.getStatus(), "Pass is " + pass.getStatus() + " and cannot be moved to " + target + "."));
+            } else if (target == PassStatus.REJECTED && !StringUtils.hasText(item.getReason())) {
+                results.put(passId, failure(passId, pass.getStatus(), "A reason is required to reject a pass."));
+            } else {
+                results.put(passId, null);
+                accepted.computeIfAbsent(target, status -> new ArrayList<>()).add(pass);
+                reasons.put(passId, item.getReason());
+            }
+        }
+
+        // Truncated to the column's precision, so the timestamp read back by apply() compares equal
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<VisitorPass> approved = apply(accepted.getOrDefault(PassStatus.APPROVED, List.of()), PassStatus.APPROVED, approver, now, results);
+        List<VisitorPass> rejected = apply(accepted.getOrDefault(PassStatus.REJECTED, List.of()), PassStatus.REJECTED, approver, now, results);
+
+        List<AuditLog> auditLogs = new ArrayList<>(approved.size() + rejected.size());
+        approved.forEach(pass -> auditLogs.add(auditService.buildEvent("PASS_APPROVED", approver.getId(), tenantId, pass.getId())));
+        rejected.forEach(pass -> auditLogs.add(auditService.buildEvent("PASS_REJECTED", approver.getId(), tenantId, pass.getId())));
+        auditService.logEvents(auditLogs);
+
+        outboxService.publishAll(RabbitMQConfig.ROUTING_KEY_APPROVED, approved.stream()
+                .map(pass -> new PassApprovedEvent(pass.getId(), tenantId, pass.getVisitorName(), pass.getCreatedBy().getEmail()))
+                .toList());
+        outboxService.publishAll(RabbitMQConfig.ROUTING_KEY_REJECTED, rejected.stream()
+                .map(pass -> new PassRejectedEvent(pass.getId(), pass.getVisitorName(), pass.getCreatedBy().getEmail(), reasons.get(pass.getId())))
+                .toList());
+
+        List<BulkDecisionResult> orderedResults = new ArrayList<>(results.values());
+        return BulkDecisionResponse.builder()
+                .approved(approved.size())
+                .rejected(rejected.size())
+                .failed(orderedResults.size() - approved.size() - rejected.size())
+                .results(orderedResults)
+                .build();
+    }
+
+    /**
+     * Moves the passes from PENDING to the target with one conditional UPDATE and records the outcome
+     * of each. Passes changed by a concurrent request in the meantime, even to the same status, are reported
+     * as conflicts.
+     *
+     * @return The passes this request actually moved.
+     */
+    private List<VisitorPass> apply(List<VisitorPass> passes, PassStatus target, User approver, LocalDateTime now,
+                                    Map<Long, BulkDecisionResult> results) {
+        if (passes.isEmpty()) {
+            return List.of();
+        }
+        String fromStatus = PassStatus.PENDING.name();
+        List<Long> ids = passes.stream().map(VisitorPass::getId).toList();
+        int updated = passRepository.transitionStatusesByApprover(ids, fromStatus, target.name(), approver, now);
+
+        List<VisitorPass> moved = passes;
+        if (updated < ids.size()) {
+            // A concurrent request may have made the same decision, so the status alone does not tell whose update won
+            Set<Long> movedIds = new HashSet<>(passRepository.findIdsMovedBy(ids, target.name(), approver, now));
+            moved = passes.stream().filter(pass -> movedIds.contains(pass.getId())).toList();
+        }
+        Set<Long> movedIds = moved.stream().map(VisitorPass::getId).collect(Collectors.toSet());
+        for (VisitorPass pass : passes) {
+            if (!movedIds.contains(pass.getId())) {
+                results.put(pass.getId(), failure(pass.getId(), null, "Pass was changed by another request. Please reload it and try again."));
+            }
+        }
+        if (moved.isEmpty()) {
+            return moved;
+        }
+
+        passStatsService.recordTransitions(moved, fromStatus, target.name());
+        // The update detached the passes, so these changes are not written a second time
+        for (VisitorPass pass : moved) {
+            pass.setStatus(target.name());
+            pass.setApprovedBy(approver);
+            pass.setUpdatedAt(now);
+            results.put(pass.getId(), new BulkDecisionResult(pass.getId(), true, target.name(), null));
+        }
+        passCodeIndex.statusChanged(moved, target.name());
+        return moved;
+    }
+
+    private static BulkDecisionResult failure(Long passId, String status, String error) {
+        return new BulkDecisionResult(passId, false, status, error);
+    }
+}
@@ -0,0 +1,84 @@
+package com.gt.visitor_pass_service.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV records one at a time, so an upload is never held in memory as a whole.
+ * Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+class CsvRecordReader {
+
+    private final BufferedReader reader;
+    private int line = 1;
+    private int recordLine;
+
+    CsvRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return The fields of the next record, or null at the end of the input.
+     * @throws IOException If the input ends inside a quoted field.
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean readAny = false;
+        recordLine = line;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            readAny = true;
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int following = reader.read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (following != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (ch == '\n') {
+                        line++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field in the record starting on line " + recordLine + ".");
+        }
+        if (!readAny) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * @return The line on which the record last returned by {@link #next()} starts.
+     */
+    int recordLine() {
+        return recordLine;
+    }
+}
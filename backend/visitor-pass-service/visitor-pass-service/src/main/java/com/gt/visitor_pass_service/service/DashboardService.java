@@ -7,10 +7,13 @@ import com.gt.visitor_pass_service.dto.VisitorPassResponse;
 import com.gt.visitor_pass_service.model.AuditLog;
 import com.gt.visitor_pass_service.model.VisitorPass;
 import com.gt.visitor_pass_service.repository.AuditLogRepository;
+import com.gt.visitor_pass_service.repository.TenantDailyPassStatRepository;
 import com.gt.visitor_pass_service.repository.VisitorPassRepository;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import com.gt.visitor_pass_service.dto.UserDashboardStatsDTO; // Add this import
 import com.gt.visitor_pass_service.model.User; // Add this import
 import com.gt.visitor_pass_service.repository.UserRepository;
@@ -18,53 +21,106 @@ import com.gt.visitor_pass_service.exception.ResourceNotFoundException;
 
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class DashboardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
     private final VisitorPassRepository passRepository;
     private final AuditLogRepository auditLogRepository;
     private final VisitorPassService visitorPassService; // For the mapper
-    private final WebClient webClient;
+    private final NotificationServiceClient notificationServiceClient;
     private final UserRepository userRepository;
+    private final TenantCalendarService tenantCalendarService;
+    private final TenantDailyPassStatRepository passStatRepository;
+    private final ExecutorService dashboardExecutor;
+    private final MeterRegistry meterRegistry;
 
     public DashboardService(VisitorPassRepository passRepository,
                             AuditLogRepository auditLogRepository,
                             VisitorPassService visitorPassService,
-                            @Value("${services.notification.base-url}") String notificationServiceUrl, UserRepository userRepository) {
+                            NotificationServiceClient notificationServiceClient,
+                            UserRepository userRepository,
+                            TenantCalendarService tenantCalendarService,
+                            TenantDailyPassStatRepository passStatRepository,
+                            @Qualifier("dashboardExecutor") ExecutorService dashboardExecutor,
+                            MeterRegistry meterRegistry) {
         this.passRepository = passRepository;
         this.auditLogRepository = auditLogRepository;
         this.visitorPassService = visitorPassService;
-        this.webClient = WebClient.create(notificationServiceUrl);
+        this.notificationServiceClient = notificationServiceClient;
         this.userRepository = userRepository;
+        this.tenantCalendarService = tenantCalendarService;
+        this.passStatRepository = passStatRepository;
+        this.dashboardExecutor = dashboardExecutor;
+        this.meterRegistry = meterRegistry;
     }
 
+    /**
+     * Loads the tenant dashboard by fetching its independent parts concurrently.
+     * Email activity is best-effort: if the notification-service is slow or down, the
+     * dashboard is still returned, with emailActivityAvailable set to false.
+     */
     public TenantDashboardResponse getTenantDashboardData(Long tenantId) {
-        TenantDashboardStats stats = getStats(tenantId);
-        List<VisitorPassResponse> recentPasses = getRecentPasses(tenantId);
-        List<AuditLog> recentPassActivity = getRecentPassActivity(tenantId);
-        List<EmailAuditLogResponse> recentEmailActivity = getRecentEmailActivity(recentPasses);
+        CompletableFuture<TenantDashboardStats> stats = supplyTimed("stats", () -> getStats(tenantId));
+        CompletableFuture<List<VisitorPassResponse>> recentPasses = supplyTimed("recentPasses", () -> getRecentPasses(tenantId));
+        CompletableFuture<List<AuditLog>> recentPassActivity = supplyTimed("passActivity", () -> getRecentPassActivity(tenantId));
+        CompletableFuture<List<EmailAuditLogResponse>> recentEmailActivity = recentPasses
+                .thenCompose(this::getRecentEmailActivity)
+                .exceptionally(ex -> {
+                    logger.warn("Email activity unavailable for tenant {} dashboard: {}", tenantId, ex.getMessage());
+                    meterRegistry.counter("dashboard.email_activity.degraded").increment();
+                    return null;
+                });
+
+        List<EmailAuditLogResponse> emailActivity = join(recentEmailActivity);
 
         return TenantDashboardResponse.builder()
-                .stats(stats)
-                .recentPasses(recentPasses)
-                .recentPassActivity(recentPassActivity)
-                .recentEmailActivity(recentEmailActivity)
+                .stats(join(stats))
+                .recentPasses(join(recentPasses))
+                .recentPassActivity(join(recentPassActivity))
+                .recentEmailActivity(emailActivity != null ? emailActivity : List.of())
+                .emailActivityAvailable(emailActivity != null)
                 .build();
     }
 
+    private <T> CompletableFuture<T> supplyTimed(String part, Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(
+                () -> meterRegistry.timer("dashboard.fanout.latency", "part", part).record(supplier),
+                dashboardExecutor);
+    }
+
+    /**
+     * Waits for a dashboard part, rethrowing the original exception so that the
+     * usual error handling (e.g. ResourceNotFoundException) still applies.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     private TenantDashboardStats getStats(Long tenantId) {
-        long pending = passRepository.countByTenantIdAndStatus(tenantId, "PENDING");
-        long approvedToday = passRepository.countApprovedForToday(tenantId);
-        long checkedIn = passRepository.countByTenantIdAndStatus(tenantId, "CHECKED_IN");
-        long completedToday = passRepository.countCompletedForToday(tenantId);
+        TenantCalendarService.DayRange today = tenantCalendarService.today(tenantId);
+        TenantDailyPassStatRepository.TenantPassCounts counts =
+                passStatRepository.getTenantDashboardCounts(tenantId, today.day());
 
         return TenantDashboardStats.builder()
-                .pendingPasses(pending)
-                .approvedPassesToday(approvedToday)
-                .checkedInVisitors(checkedIn)
-                .completedPassesToday(completedToday)
+                .pendingPasses(counts.getPendingPasses())
+                .approvedPassesToday(counts.getApprovedPassesToday())
+                .checkedInVisitors(counts.getCheckedInVisitors())
+                .completedPassesToday(counts.getCompletedPassesToday())
                 .build();
     }
 
@@ -79,41 +135,30 @@ public class DashboardService {
         return auditLogRepository.findTop10ByTenantIdAndPassIdIsNotNullOrderByTimestampDesc(tenantId);
     }
 
-    private List<EmailAuditLogResponse> getRecentEmailActivity(List<VisitorPassResponse> recentPasses) {
+    private CompletableFuture<List<EmailAuditLogResponse>> getRecentEmailActivity(List<VisitorPassResponse> recentPasses) {
         if (recentPasses.isEmpty()) {
-            return List.of();
+            return CompletableFuture.completedFuture(List.of());
         }
 
         List<Long> passIds = recentPasses.stream().map(VisitorPassResponse::getId).collect(Collectors.toList());
 
-        // Make an API call to the notification-service
-        return webClient.post()
-                .uri("/api/internal/email-logs/by-pass-ids")
-                .bodyValue(passIds)
-                .retrieve()
-                .bodyToFlux(EmailAuditLogResponse.class)
-                .collectList()
-                .block(); // Using block for simplicity; reactive is better for high load
+        // Non-blocking call to the notification-service, bounded by the client's timeout and circuit breaker
+        return notificationServiceClient.getEmailLogsForPasses(passIds);
     }
     public UserDashboardStatsDTO getUserDashboardStats(String userEmail) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
 
-        long myPending = passRepository.countByCreatedByIdAndStatus(user.getId(), "PENDING");
-        long myApproved = passRepository.countByCreatedByIdAndStatus(user.getId(), "APPROVED");
-        long myCompleted = passRepository.countByCreatedByIdAndStatus(user.getId(), "CHECKED_OUT");
-
-        long awaitingMyApproval = 0;
-        if ("ROLE_APPROVER".equals(user.getRole()) || "ROLE_TENANT_ADMIN".equals(user.getRole())) {
-            // This counts pending passes for the user's entire tenant
-            awaitingMyApproval = passRepository.countByTenantIdAndStatus(user.getTenant().getId(), "PENDING");
-        }
+        // Approvers also see the pending passes of their whole tenant
+        boolean isApprover = "ROLE_APPROVER".equals(user.getRole()) || "ROLE_TENANT_ADMIN".equals(user.getRole());
+        Long approvalTenantId = isApprover ? user.getTenant().getId() : null;
+        VisitorPassRepository.UserPassCounts counts = passRepository.getUserDashboardCounts(user.getId(), approvalTenantId);
 
         return UserDashboardStatsDTO.builder()
-                .myPendingPasses(myPending)
-                .myApprovedPasses(myApproved)
-                .myCompletedPasses(myCompleted)
-                .passesAwaitingMyApproval(awaitingMyApproval)
+                .myPendingPasses(counts.getMyPendingPasses())
+                .myApprovedPasses(counts.getMyApprovedPasses())
+                .myCompletedPasses(counts.getMyCompletedPasses())
+                .passesAwaitingMyApproval(counts.getPassesAwaitingApproval())
                 .build();
     }
 }
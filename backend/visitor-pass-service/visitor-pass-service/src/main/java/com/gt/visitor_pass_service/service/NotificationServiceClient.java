@@ -0,0 +1,103 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.dto.EmailAuditLogResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking client for the notification-service internal API.
+ * Every call is bounded by a strict timeout, and a simple circuit breaker stops calling
+ * the service for a while after repeated failures, so a slow notification-service
+ * cannot hold up the dashboards that depend on it.
+ */
+@Service
+public class NotificationServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationServiceClient.class);
+
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openUntilMillis;
+
+    private final Timer callTimer;
+    private final Counter failureCounter;
+    private final Counter shortCircuitCounter;
+
+    public NotificationServiceClient(@Value("${services.notification.base-url}") String notificationServiceUrl,
+                                     @Value("${services.notification.timeout-ms:800}") long timeoutMs,
+                                     @Value("${services.notification.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                     @Value("${services.notification.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+                                     MeterRegistry meterRegistry) {
+        this.webClient = WebClient.create(notificationServiceUrl);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.callTimer = meterRegistry.timer("notification.client.latency");
+        this.failureCounter = meterRegistry.counter("notification.client.failures");
+        this.shortCircuitCounter = meterRegistry.counter("notification.client.short_circuited");
+        Gauge.builder("notification.client.circuit.open", this, client -> client.isOpen() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fetches the email audit logs for the given passes.
+     * The returned future fails fast when the circuit is open, and fails after the
+     * configured timeout if the notification-service does not answer in time.
+     */
+    public CompletableFuture<List<EmailAuditLogResponse>> getEmailLogsForPasses(List<Long> passIds) {
+        if (isOpen()) {
+            shortCircuitCounter.increment();
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Notification service circuit is open; skipping call."));
+        }
+
+        long start = System.nanoTime();
+        return webClient.post()
+                .uri("/api/internal/email-logs/by-pass-ids")
+                .bodyValue(passIds)
+                .retrieve()
+                .bodyToFlux(EmailAuditLogResponse.class)
+                .collectList()
+                .timeout(timeout)
+                .toFuture()
+                .whenComplete((logs, error) -> {
+                    callTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                    if (error == null) {
+                        consecutiveFailures.set(0);
+                    } else {
+                        recordFailure(error);
+                    }
+                });
+    }
+
+    private boolean isOpen() {
+        return System.currentTimeMillis() < openUntilMillis;
+    }
+
+    private void recordFailure(Throwable error) {
+        failureCounter.increment();
+        int failures = consecutiveFailures.incrementAndGet();
+        logger.warn("Notification service call failed ({} in a row): {}", failures, error.getMessage());
+        if (failures >= failureThreshold) {
+            openUntilMillis = System.currentTimeMillis() + openDurationMs;
+            consecutiveFailures.set(0);
+            logger.error("Opening notification service circuit for {} ms.", openDurationMs);
+        }
+    }
+}
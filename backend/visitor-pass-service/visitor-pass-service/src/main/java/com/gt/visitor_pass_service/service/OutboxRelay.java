@@ -0,0 +1,297 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.config.PublishCorrelation;
+import com.gt.visitor_pass_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.batch.MessageBatch;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes pending outbox events to RabbitMQ.
+ * Each run locks a batch of rows (SKIP LOCKED, so several instances can relay side by side),
+ * sends the whole batch before waiting for the broker's publisher confirms, and marks the
+ * confirmed rows as published. Rows that are nacked, returned as unroutable or not confirmed in
+ * time are retried with exponential backoff (next_attempt_at), so they never hold up the rows
+ * behind them; after the maximum number of attempts they are parked (failed_at is set) and left
+ * for an operator, who can clear failed_at to requeue them. Delivery is at-least-once; consumers
+ * can de-duplicate on the message id (the outbox row id).
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String SELECT_PENDING_SQL =
+            "SELECT id, exchange, routing_key, payload, payload_type, created_at, attempts FROM outbox_events " +
+            "WHERE published_at IS NULL AND failed_at IS NULL AND (next_attempt_at IS NULL OR next_attempt_at <= ?) " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String MARK_PUBLISHED_SQL = "UPDATE outbox_events SET published_at = ? WHERE id = ?";
+    private static final String MARK_FAILED_SQL =
+            "UPDATE outbox_events SET attempts = attempts + 1, last_error = ?, next_attempt_at = ?, failed_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+    private final int retentionDays;
+    private final boolean batchingEnabled;
+    private final Set<String> batchedRoutingKeys;
+    private final int maxMessagesPerBatch;
+    private final int batchBufferLimit;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       RabbitTemplate rabbitTemplate,
+                       OutboxEventRepository outboxEventRepository,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                       @Value("${app.outbox.retention-days:7}") int retentionDays,
+                       @Value("${app.messaging.batching.enabled:false}") boolean batchingEnabled,
+                       @Value("${app.messaging.batching.routing-keys:pass.event.expired}") Set<String> batchedRoutingKeys,
+                       @Value("${app.messaging.batching.max-messages:100}") int maxMessagesPerBatch,
+                       @Value("${app.messaging.batching.buffer-limit-bytes:262144}") int batchBufferLimit,
+                       @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+                       @Value("${app.outbox.max-retry-backoff-ms:300000}") long maxRetryBackoffMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.retentionDays = retentionDays;
+        this.batchingEnabled = batchingEnabled;
+        this.batchedRoutingKeys = batchedRoutingKeys;
+        this.maxMessagesPerBatch = maxMessagesPerBatch;
+        this.batchBufferLimit = batchBufferLimit;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+        this.meterRegistry = meterRegistry;
+        this.publishedCounter = meterRegistry.counter("outbox.relay.published");
+        this.failedCounter = meterRegistry.counter("outbox.relay.failed");
+        this.parkedCounter = meterRegistry.counter("outbox.relay.parked");
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:500}")
+    public void relayPendingEvents() {
+        // Keep draining while full batches are confirmed; stop at the first failure and retry next run
+        while (true) {
+            Integer relayed = transactionTemplate.execute(status -> relayBatch());
+            if (relayed == null || relayed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 0 3 * * ?") // Runs every day at 3:00 AM
+    public void purgePublishedEvents() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays));
+        logger.info("Purged {} published outbox events older than {} days.", deleted, retentionDays);
+    }
+
+    /**
+     * @return The number of events confirmed, or -1 if any event of the batch could not be delivered.
+     */
+    private int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingEvent> pending = jdbcTemplate.query(SELECT_PENDING_SQL,
+                (rs, rowNum) -> new PendingEvent(rs.getLong("id"), rs.getString("exchange"), rs.getString("routing_key"),
+                        rs.getString("payload"), rs.getString("payload_type"), rs.getTimestamp("created_at"), rs.getInt("attempts")),
+                Timestamp.valueOf(now), batchSize);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // Pipeline the whole batch, then wait for the confirms
+        List<Map.Entry<Publication, PublishCorrelation>> inFlight = new ArrayList<>();
+        List<Object[]> failed = new ArrayList<>();
+        for (Publication publication : toPublications(pending)) {
+            PublishCorrelation correlation = new PublishCorrelation(
+                    String.valueOf(publication.events().get(0).id()), publication.routingKey(), publication.events().size());
+            try {
+                rabbitTemplate.send(publication.exchange(), publication.routingKey(), publication.message(), correlation);
+                inFlight.add(Map.entry(publication, correlation));
+            } catch (AmqpException e) {
+                meterRegistry.counter("amqp.publish.failures", "routingKey", publication.routingKey(), "reason", "send_error")
+                        .increment(publication.events().size());
+                addFailures(failed, publication, truncate(e.getMessage()), now);
+                break; // The broker is unreachable; the rest of the batch would fail the same way
+            }
+        }
+
+        List<Object[]> published = new ArrayList<>();
+        Timestamp publishedAt = Timestamp.valueOf(now);
+        long deadline = System.currentTimeMillis() + confirmTimeoutMs;
+        for (Map.Entry<Publication, PublishCorrelation> entry : inFlight) {
+            Publication publication = entry.getKey();
+            try {
+                long wait = Math.max(0, deadline - System.currentTimeMillis());
+                CorrelationData.Confirm confirm = entry.getValue().getFuture().get(wait, TimeUnit.MILLISECONDS);
+                ReturnedMessage returned = entry.getValue().getReturned();
+                if (!confirm.isAck()) {
+                    addFailures(failed, publication, truncate("Nacked by broker: " + confirm.getReason()), now);
+                } else if (returned != null) {
+                    // Acked, but no queue was bound for the routing key: the message was dropped
+                    addFailures(failed, publication, truncate("Returned as unroutable: " + returned.getReplyText()), now);
+                } else {
+                    publication.events().forEach(event -> published.add(new Object[]{publishedAt, event.id()}));
+                }
+            } catch (TimeoutException e) {
+                addFailures(failed, publication, "Publisher confirm timed out", now);
+            } catch (ExecutionException e) {
+                addFailures(failed, publication, truncate(e.getCause().getMessage()), now);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                addFailures(failed, publication, "Interrupted while waiting for confirm", now);
+            }
+        }
+
+        if (!published.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_PUBLISHED_SQL, published);
+            publishedCounter.increment(published.size());
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_FAILED_SQL, failed);
+            failedCounter.increment(failed.size());
+            logger.warn("Outbox relay: {} of {} events not confirmed; they will be retried.", failed.size(), pending.size());
+            return -1;
+        }
+        return published.size();
+    }
+
+    /**
+     * Turns pending rows into AMQP messages. Events whose routing key is configured for batching
+     * are packed, in id order, into Spring AMQP batch messages (the same format BatchingRabbitTemplate
+     * produces, which listener containers split back up) with a single confirm per batch.
+     * BatchingRabbitTemplate itself cannot be used here because it bypasses batching for
+     * sends that carry correlation data.
+     */
+    private List<Publication> toPublications(List<PendingEvent> pending) {
+        List<Publication> publications = new ArrayList<>();
+        Map<String, List<PendingEvent>> batchable = new LinkedHashMap<>();
+        for (PendingEvent event : pending) {
+            if (batchingEnabled && batchedRoutingKeys.contains(event.routingKey())) {
+                batchable.computeIfAbsent(event.exchange() + "|" + event.routingKey() + "|" + event.payloadType(),
+                        key -> new ArrayList<>()).add(event);
+            } else {
+                publications.add(new Publication(event.exchange(), event.routingKey(), event.toMessage(), List.of(event)));
+            }
+        }
+
+        for (List<PendingEvent> group : batchable.values()) {
+            List<PendingEvent> current = new ArrayList<>();
+            int currentBytes = 0;
+            for (PendingEvent event : group) {
+                int size = event.payload().getBytes(StandardCharsets.UTF_8).length;
+                if (!current.isEmpty() && (current.size() >= maxMessagesPerBatch || currentBytes + size > batchBufferLimit)) {
+                    publications.add(toBatchPublication(current));
+                    current = new ArrayList<>();
+                    currentBytes = 0;
+                }
+                current.add(event);
+                currentBytes += size;
+            }
+            if (!current.isEmpty()) {
+                publications.add(toBatchPublication(current));
+            }
+        }
+        return publications;
+    }
+
+    private static Publication toBatchPublication(List<PendingEvent> events) {
+        PendingEvent first = events.get(0);
+        if (events.size() == 1) {
+            return new Publication(first.exchange(), first.routingKey(), first.toMessage(), events);
+        }
+        SimpleBatchingStrategy strategy = new SimpleBatchingStrategy(events.size(), Integer.MAX_VALUE, Long.MAX_VALUE);
+        MessageBatch batch = null;
+        for (PendingEvent event : events) {
+            batch = strategy.addToBatch(event.exchange(), event.routingKey(), event.toMessage());
+        }
+        // The batch is released when its last message is added
+        return new Publication(first.exchange(), first.routingKey(), batch.message(), events);
+    }
+
+    /**
+     * Schedules the next attempt of each event with exponential backoff, or parks the event once
+     * it has used up its attempts.
+     */
+    private void addFailures(List<Object[]> failed, Publication publication, String error, LocalDateTime now) {
+        for (PendingEvent event : publication.events()) {
+            int attempts = event.attempts() + 1;
+            if (attempts >= maxAttempts) {
+                parkedCounter.increment();
+                logger.error("Outbox event {} ({}) parked after {} failed attempts: {}", event.id(), event.routingKey(), attempts, error);
+                failed.add(new Object[]{error, null, Timestamp.valueOf(now), event.id()});
+            } else {
+                long backoffMs = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(attempts - 1, 30));
+                failed.add(new Object[]{error, Timestamp.valueOf(now.plusNanos(backoffMs * 1_000_000)), null, event.id()});
+            }
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 255 ? message.substring(0, 255) : message;
+    }
+
+    private record Publication(String exchange, String routingKey, Message message, List<PendingEvent> events) {
+    }
+
+    private record PendingEvent(long id, String exchange, String routingKey, String payload, String payloadType,
+                                Timestamp createdAt, int attempts) {
+
+        Message toMessage() {
+            MessageProperties properties = new MessageProperties();
+            properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+            properties.setContentEncoding(StandardCharsets.UTF_8.name());
+            properties.setMessageId(String.valueOf(id));
+            // The time the event was committed, so consumers can measure end-to-end lag
+            properties.setTimestamp(createdAt);
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, payloadType);
+            return new Message(payload.getBytes(StandardCharsets.UTF_8), properties);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.config.RabbitMQConfig;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records domain events in the outbox_events table instead of sending them to RabbitMQ directly.
+ * Because the row is written in the caller's transaction, an event exists if and only if the
+ * change it describes was committed; OutboxRelay delivers it to the broker afterwards.
+ */
+@Service
+public class OutboxService {
+
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO outbox_events (exchange, routing_key, payload, payload_type, attempts, created_at) VALUES (?, ?, ?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MessageConverter messageConverter;
+
+    public OutboxService(JdbcTemplate jdbcTemplate, MessageConverter messageConverter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.messageConverter = messageConverter;
+    }
+
+    @Transactional
+    public void publish(String routingKey, Object event) {
+        publishAll(routingKey, List.of(event));
+    }
+
+    /**
+     * Records many events with the same routing key as a single JDBC batch.
+     */
+    @Transactional
+    public void publishAll(String routingKey, List<?> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, events, events.size(), (ps, event) -> {
+            // Serialise with the same converter RabbitTemplate uses, so relayed messages are identical
+            Message message = messageConverter.toMessage(event, new MessageProperties());
+            ps.setString(1, RabbitMQConfig.EXCHANGE_NAME);
+            ps.setString(2, routingKey);
+            ps.setString(3, new String(message.getBody(), StandardCharsets.UTF_8));
+            ps.setString(4, message.getMessageProperties().getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME));
+            ps.setObject(5, now);
+        });
+    }
+}
@@ -0,0 +1,135 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Generates pass codes that are unique within a tenant.
+ * A code is a random payload in Crockford's base32 alphabet (no I, L, O or U, so it is easy to
+ * read out and type) followed by a Luhn mod 32 check character, which catches every single
+ * mistyped or misread character and most adjacent transpositions before a lookup is made.
+ * Candidates are checked against the tenant's existing codes in one query per block; the
+ * unique (tenant_id, pass_code) constraint is the final guard against concurrent inserts.
+ */
+@Service
+public class PassCodeGenerator {
+
+    static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final int RADIX = ALPHABET.length();
+    private static final int BITS_PER_CHARACTER = 5;
+    private static final int MAX_PAYLOAD_LENGTH = 12;
+    private static final int MAX_ATTEMPTS = 5;
+
+    // One generator per thread: no contention on a shared, synchronized entropy source
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    private final VisitorPassRepository passRepository;
+    private final int payloadLength;
+
+    public PassCodeGenerator(VisitorPassRepository passRepository,
+                             @Value("${app.pass-code.payload-length:9}") int payloadLength) {
+        if (payloadLength < 4 || payloadLength > MAX_PAYLOAD_LENGTH) {
+            throw new IllegalArgumentException("app.pass-code.payload-length must be between 4 and " + MAX_PAYLOAD_LENGTH);
+        }
+        this.passRepository = passRepository;
+        this.payloadLength = payloadLength;
+    }
+
+    public String nextCode(Long tenantId) {
+        return nextCodes(tenantId, 1).get(0);
+    }
+
+    /**
+     * Allocates a block of distinct codes that are not yet used by the tenant.
+     * Collisions are rare, so this is normally a single lookup for the whole block.
+     */
+    public List<String> nextCodes(Long tenantId, int count) {
+        Set<String> codes = new LinkedHashSet<>(count * 2);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Set<String> candidates = new LinkedHashSet<>();
+            while (codes.size() + candidates.size() < count) {
+                String candidate = randomCode();
+                if (!codes.contains(candidate)) {
+                    candidates.add(candidate);
+                }
+            }
+            Set<String> taken = new HashSet<>(passRepository.findExistingPassCodes(tenantId, candidates));
+            for (String candidate : candidates) {
+                if (!taken.contains(candidate)) {
+                    codes.add(candidate);
+                }
+            }
+            if (codes.size() == count) {
+                return new ArrayList<>(codes);
+            }
+        }
+        throw new IllegalStateException("Could not allocate " + count + " unique pass codes for tenant " + tenantId);
+    }
+
+    /**
+     * @return false if the code has the generated length and alphabet but its check character does
+     * not match, i.e. it was certainly misread. Codes of any other shape (such as codes issued before
+     * this format) are not judged here.
+     */
+    public boolean passesCheck(String normalizedCode) {
+        if (normalizedCode.length() != payloadLength + 1) {
+            return true;
+        }
+        for (int i = 0; i < normalizedCode.length(); i++) {
+            if (ALPHABET.indexOf(normalizedCode.charAt(i)) < 0) {
+                return true;
+            }
+        }
+        String payload = normalizedCode.substring(0, payloadLength);
+        return checkCharacter(payload) == normalizedCode.charAt(payloadLength);
+    }
+
+    /**
+     * Canonical form of a scanned or typed code: upper case, hyphens and spaces removed, and the
+     * letters Crockford's alphabet treats as look-alikes mapped to their digits (O to 0, I and L to 1).
+     */
+    public static String normalize(String code) {
+        StringBuilder normalized = new StringBuilder(code.length());
+        for (char c : code.toUpperCase(Locale.ROOT).toCharArray()) {
+            switch (c) {
+                case '-', ' ' -> { }
+                case 'O' -> normalized.append('0');
+                case 'I', 'L' -> normalized.append('1');
+                default -> normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private String randomCode() {
+        long bits = RANDOM.get().nextLong();
+        char[] code = new char[payloadLength + 1];
+        for (int i = 0; i < payloadLength; i++) {
+            code[i] = ALPHABET.charAt((int) (bits & (RADIX - 1)));
+            bits >>>= BITS_PER_CHARACTER;
+        }
+        code[payloadLength] = checkCharacter(new String(code, 0, payloadLength));
+        return new String(code);
+    }
+
+    // Luhn mod N over the base32 alphabet
+    static char checkCharacter(String payload) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = payload.length() - 1; i >= 0; i--) {
+            int addend = factor * ALPHABET.indexOf(payload.charAt(i));
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / RADIX + addend % RADIX;
+        }
+        return ALPHABET.charAt((RADIX - sum % RADIX) % RADIX);
+    }
+}
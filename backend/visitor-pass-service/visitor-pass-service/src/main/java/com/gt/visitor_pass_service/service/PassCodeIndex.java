@@ -0,0 +1,254 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.repository.TenantRepository;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory index from pass code to today's scannable (APPROVED or CHECKED_IN) passes,
+ * one per tenant and scoped to the tenant's local day, so gate scans skip the database.
+ * Each tenant's index is loaded at startup, rebuilt when its day rolls over, kept current by
+ * the pass transitions of this instance and periodically reloaded to pick up changes made by
+ * other instances. A miss is not authoritative: callers fall back to the database.
+ * Transitions committed while a tenant is being reloaded are replayed onto the new snapshot
+ * before it replaces the old one, so the reload cannot bring back a status the query read too early.
+ */
+@Service
+public class PassCodeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassCodeIndex.class);
+
+    private static final Set<String> SCANNABLE_STATUSES = Set.of(PassStatus.APPROVED.name(), PassStatus.CHECKED_IN.name());
+
+    private final VisitorPassRepository passRepository;
+    private final TenantRepository tenantRepository;
+    private final TenantCalendarService tenantCalendarService;
+    private final long maxAgeNanos;
+    private final Map<Long, TenantIndex> tenants = new ConcurrentHashMap<>();
+    // Transitions seen while a tenant's snapshot is being loaded, guarded by swapLock
+    private final Map<Long, List<IndexedPass>> changesDuringLoad = new HashMap<>();
+    private final Object swapLock = new Object();
+    private final Counter hits;
+    private final Counter misses;
+
+    public PassCodeIndex(VisitorPassRepository passRepository,
+                         TenantRepository tenantRepository,
+                         TenantCalendarService tenantCalendarService,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.pass-code-index.max-age-ms:300000}") long maxAgeMs) {
+        this.passRepository = passRepository;
+        this.tenantRepository = tenantRepository;
+        this.tenantCalendarService = tenantCalendarService;
+        this.maxAgeNanos = maxAgeMs * 1_000_000;
+        this.hits = Counter.builder("pass.code.index.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("pass.code.index.lookups").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("pass.code.index.size", tenants,
+                        indexes -> indexes.values().stream().mapToInt(index -> index.passesByCode().size()).sum())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        refreshStaleTenants();
+        logger.info("Pass-code index warmed for {} tenants in {} ms.", tenants.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Rebuilds the index of every tenant whose local day has changed since it was loaded
+     * (i.e. just after its midnight) or whose snapshot is older than the maximum age.
+     */
+    @Scheduled(fixedDelayString = "${app.pass-code-index.check-interval-ms:60000}", initialDelayString = "${app.pass-code-index.check-interval-ms:60000}")
+    public void refreshStaleTenants() {
+        try {
+            List<Long> tenantIds = tenantRepository.findAllIds();
+            tenants.keySet().retainAll(Set.copyOf(tenantIds));
+            long now = System.nanoTime();
+            for (Long tenantId : tenantIds) {
+                TenantIndex index = tenants.get(tenantId);
+                if (index == null || !index.day().equals(today(tenantId)) || now - index.loadedAtNanos() > maxAgeNanos) {
+                    load(tenantId);
+                }
+            }
+        } catch (Exception ex) {
+            // Keep serving the last snapshot; lookups that miss still go to the database
+            logger.error("Could not refresh pass-code index: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * @return Today's scannable pass with this code, or empty if it is not in the index.
+     */
+    public Optional<IndexedPass> find(Long tenantId, String passCode) {
+        TenantIndex index = tenants.get(tenantId);
+        IndexedPass pass = index != null && index.day().equals(today(tenantId))
+                ? index.passesByCode().get(normalize(passCode))
+                : null;
+        (pass != null ? hits : misses).increment();
+        return Optional.ofNullable(pass);
+    }
+
+    /**
+     * Adds a pass read from the database after a miss, if it belongs in today's index.
+     * The read may be older than a transition stored since, so it never replaces an entry.
+     */
+    public void offer(VisitorPass pass) {
+        // Not replayed onto a snapshot being loaded, for the same reason
+        TenantIndex index = pass.getTenant() != null ? tenants.get(pass.getTenant().getId()) : null;
+        if (index == null || pass.getPassCode() == null) {
+            return;
+        }
+        IndexedPass offered = IndexedPass.of(pass, pass.getStatus());
+        if (isScannable(index, offered)) {
+            index.passesByCode().putIfAbsent(normalize(offered.passCode()), offered);
+        } else {
+            apply(index, offered);
+        }
+    }
+
+    public void statusChanged(VisitorPass pass) {
+        statusChanged(List.of(pass), pass.getStatus());
+    }
+
+    /**
+     * Records that these passes moved to the given status. The index is updated only once
+     * the surrounding transaction commits, so a rolled back transition never shows up at the gate.
+     */
+    public void statusChanged(List<VisitorPass> passes, String status) {
+        if (passes.isEmpty()) {
+            return;
+        }
+        List<IndexedPass> changed = passes.stream().map(pass -> IndexedPass.of(pass, status)).toList();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed.forEach(PassCodeIndex.this::transitioned);
+                }
+            });
+        } else {
+            changed.forEach(this::transitioned);
+        }
+    }
+
+    private void load(Long tenantId) {
+        // Start recording before the query, so a transition its snapshot misses is replayed below
+        synchronized (swapLock) {
+            changesDuringLoad.put(tenantId, new ArrayList<>());
+        }
+        try {
+            TenantCalendarService.DayRange today = tenantCalendarService.today(tenantId);
+            long loadedAt = System.nanoTime();
+            Map<String, IndexedPass> passesByCode = new ConcurrentHashMap<>();
+            for (VisitorPassRepository.ScannablePass row : passRepository.findScannablePasses(tenantId, today.start(), today.end())) {
+                if (row.getPassCode() != null) {
+                    passesByCode.put(normalize(row.getPassCode()), IndexedPass.of(tenantId, row));
+                }
+            }
+            TenantIndex loaded = new TenantIndex(today.day(), loadedAt, passesByCode);
+            synchronized (swapLock) {
+                changesDuringLoad.remove(tenantId).forEach(change -> apply(loaded, change));
+                tenants.put(tenantId, loaded);
+            }
+        } finally {
+            synchronized (swapLock) {
+                changesDuringLoad.remove(tenantId);
+            }
+        }
+    }
+
+    private void transitioned(IndexedPass pass) {
+        if (pass.tenantId() == null) {
+            return;
+        }
+        TenantIndex index;
+        synchronized (swapLock) {
+            List<IndexedPass> pending = changesDuringLoad.get(pass.tenantId());
+            if (pending != null) {
+                pending.add(pass);
+            }
+            index = tenants.get(pass.tenantId());
+        }
+        if (index != null) {
+            apply(index, pass);
+        }
+    }
+
+    private void apply(TenantIndex index, IndexedPass pass) {
+        if (pass.passCode() == null) {
+            return;
+        }
+        String code = normalize(pass.passCode());
+        if (isScannable(index, pass)) {
+            index.passesByCode().put(code, pass);
+        } else {
+            index.passesByCode().computeIfPresent(code, (key, current) -> current.id().equals(pass.id()) ? null : current);
+        }
+    }
+
+    private static boolean isScannable(TenantIndex index, IndexedPass pass) {
+        return SCANNABLE_STATUSES.contains(pass.status())
+                && pass.visitDateTime() != null
+                && pass.visitDateTime().toLocalDate().equals(index.day());
+    }
+
+    private LocalDate today(Long tenantId) {
+        return LocalDate.now(tenantCalendarService.getZone(tenantId));
+    }
+
+    private static String normalize(String passCode) {
+        return PassCodeGenerator.normalize(passCode);
+    }
+
+    private record TenantIndex(LocalDate day, long loadedAtNanos, Map<String, IndexedPass> passesByCode) {
+    }
+
+    /**
+     * The part of a pass that a gate scan needs, kept immutable so it can be shared across threads.
+     */
+    public record IndexedPass(Long id, Long tenantId, String passCode, String visitorName, String visitorEmail,
+                              String purpose, String status, LocalDateTime visitDateTime, String createdByEmployeeName) {
+
+        static IndexedPass of(VisitorPass pass, String status) {
+            return new IndexedPass(
+                    pass.getId(),
+                    pass.getTenant() != null ? pass.getTenant().getId() : null,
+                    pass.getPassCode(),
+                    pass.getVisitorName(),
+                    pass.getVisitorEmail(),
+                    pass.getPurpose(),
+                    status,
+                    pass.getVisitDateTime(),
+                    pass.getCreatedBy() != null ? pass.getCreatedBy().getName() : null
+            );
+        }
+
+        static IndexedPass of(Long tenantId, VisitorPassRepository.ScannablePass row) {
+            return new IndexedPass(row.getId(), tenantId, row.getPassCode(), row.getVisitorName(), row.getVisitorEmail(),
+                    row.getPurpose(), row.getStatus(), row.getVisitDateTime(), row.getCreatedByName());
+        }
+    }
+}
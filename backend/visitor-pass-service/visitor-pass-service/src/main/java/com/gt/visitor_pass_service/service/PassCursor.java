@@ -0,0 +1,40 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.exception.BadRequestException;
+import com.gt.visitor_pass_service.model.VisitorPass;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last pass returned by a keyset-paginated listing, ordered by (createdAt, id) descending.
+ * Clients only ever see it as an opaque, URL-safe token. A null createdAt (a legacy pass without one,
+ * listed after all dated passes) is encoded as an empty timestamp.
+ */
+record PassCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    static PassCursor of(VisitorPass pass) {
+        return new PassCursor(pass.getCreatedAt(), pass.getId());
+    }
+
+    String encode() {
+        String raw = (createdAt != null ? createdAt.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static PassCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            String createdAt = raw.substring(0, separator);
+            return new PassCursor(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid pagination cursor.");
+        }
+    }
+}
@@ -2,94 +2,227 @@ package com.gt.visitor_pass_service.service;
 
 import com.gt.visitor_pass_service.config.RabbitMQConfig;
 import com.gt.visitor_pass_service.dto.PassExpiredEvent;
-import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.AuditLog;
+import com.gt.visitor_pass_service.model.JobCheckpoint;
+import com.gt.visitor_pass_service.model.Tenant;
 import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.repository.JobCheckpointRepository;
+import com.gt.visitor_pass_service.repository.TenantRepository;
 import com.gt.visitor_pass_service.repository.UserRepository;
 import com.gt.visitor_pass_service.repository.VisitorPassRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class PassExpiryService {
 
     private static final Logger logger = LoggerFactory.getLogger(PassExpiryService.class);
 
+    private static final String JOB_NAME = "pass-expiry";
+
     private final VisitorPassRepository passRepository;
     private final AuditService auditService;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
     private final UserRepository userRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final PassStatsService passStatsService;
+    private final PassCodeIndex passCodeIndex;
+    private final TenantRepository tenantRepository;
+    private final TenantCalendarService tenantCalendarService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
 
-    public PassExpiryService(VisitorPassRepository passRepository, AuditService auditService, RabbitTemplate rabbitTemplate, UserRepository userRepository) {
+    public PassExpiryService(VisitorPassRepository passRepository,
+                             AuditService auditService,
+                             OutboxService outboxService,
+                             UserRepository userRepository,
+                             JobCheckpointRepository checkpointRepository,
+                             PassStatsService passStatsService,
+                             PassCodeIndex passCodeIndex,
+                             TenantRepository tenantRepository,
+                             TenantCalendarService tenantCalendarService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.expiry.chunk-size:500}") int chunkSize) {
         this.passRepository = passRepository;
         this.auditService = auditService;
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxService = outboxService;
         this.userRepository = userRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.passStatsService = passStatsService;
+        this.passCodeIndex = passCodeIndex;
+        this.tenantRepository = tenantRepository;
+        this.tenantCalendarService = tenantCalendarService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
     }
 
     /**
-     * A scheduled task that runs automatically every day at 1 AM.
-     * It finds all visitor passes with an 'APPROVED' status for dates before today and expires them.
+     * A scheduled task that runs automatically every hour.
+     * It finds all visitor passes with an 'APPROVED' status for dates before the tenant's local
+     * today and expires them, so each tenant's passes expire shortly after its own midnight.
+     * Tenants are grouped by time zone; passes are processed in id-ordered chunks per zone, and
+     * each chunk is committed in its own transaction together with a checkpoint for that zone,
+     * so an interrupted run resumes where it stopped.
      */
-    @Scheduled(cron = "0 0 1 * * ?") // Runs every day at 1:00 AM
-    @Transactional
+    @Scheduled(cron = "${app.expiry.cron:0 5 * * * ?}") // By default five minutes past every hour
     public void expireOldPasses() {
         logger.info("Running scheduled job: Expiring old visitor passes...");
-        List<VisitorPass> passesToExpire = passRepository.findOverdueApprovedPasses();
+        Map<ZoneId, List<Long>> tenantIdsByZone = tenantRepository.findAll().stream()
+                .collect(Collectors.groupingBy(tenant -> tenantCalendarService.getZone(tenant),
+                        Collectors.mapping(Tenant::getId, Collectors.toList())));
+
+        // One query for all tenant admins instead of a full user scan per expired pass
+        Map<Long, List<String>> tenantAdminEmails = loadTenantAdminEmails();
+
+        long jobStart = System.nanoTime();
+        int totalExpired = 0;
+        for (Map.Entry<ZoneId, List<Long>> zone : tenantIdsByZone.entrySet()) {
+            totalExpired += expireZone(zone.getKey(), zone.getValue(), tenantAdminEmails);
+        }
 
-        if (passesToExpire.isEmpty()) {
+        if (totalExpired == 0) {
             logger.info("No overdue passes to expire.");
             return;
         }
+        long totalMs = (System.nanoTime() - jobStart) / 1_000_000;
+        logger.info("Successfully expired {} passes across {} time zones ({} ms).", totalExpired, tenantIdsByZone.size(), totalMs);
+    }
+
+    private int expireZone(ZoneId zone, List<Long> tenantIds, Map<Long, List<String>> tenantAdminEmails) {
+        String jobName = JOB_NAME + ":" + zone.getId();
+        LocalDate runDate = LocalDate.now(zone);
+        LocalDateTime cutoff = runDate.atStartOfDay();
+        long lastProcessedId = loadCheckpoint(jobName, runDate);
+        if (lastProcessedId > 0) {
+            logger.info("Resuming pass expiry for {} from checkpoint after pass ID {}", zone, lastProcessedId);
+        }
+
+        int totalExpired = 0;
+        int chunkNumber = 0;
 
-        for (VisitorPass pass : passesToExpire) {
-            pass.setStatus("EXPIRED");
-            pass.setUpdatedAt(LocalDateTime.now());
-            passRepository.save(pass);
+        while (true) {
+            long chunkStart = System.nanoTime();
+            long afterId = lastProcessedId;
+            ExpiryChunk chunk = transactionTemplate.execute(status ->
+                    expireChunk(jobName, runDate, tenantIds, cutoff, afterId, tenantAdminEmails));
+            if (chunk == null || chunk.scanned() == 0) {
+                break;
+            }
+
+            chunkNumber++;
+            totalExpired += chunk.expired();
+            lastProcessedId = chunk.lastId();
+            long elapsedMs = Math.max(1, (System.nanoTime() - chunkStart) / 1_000_000);
+            logger.info("Expiry chunk {} ({}): expired {} of {} scanned passes in {} ms ({} passes/s)",
+                    chunkNumber, zone, chunk.expired(), chunk.scanned(), elapsedMs, chunk.expired() * 1000L / elapsedMs);
+
+            if (chunk.scanned() < chunkSize) {
+                break;
+            }
+        }
+        return totalExpired;
+    }
+
+    /**
+     * Expires one chunk of overdue passes inside the caller's transaction:
+     * a single bulk UPDATE, one batched audit insert, one batched outbox insert and a checkpoint write.
+     */
+    private ExpiryChunk expireChunk(String jobName, LocalDate runDate, List<Long> tenantIds, LocalDateTime cutoff, long afterId,
+                                    Map<Long, List<String>> tenantAdminEmails) {
+        List<VisitorPass> passes = passRepository.findOverdueApprovedPasses(tenantIds, cutoff, afterId, PageRequest.of(0, chunkSize));
+        if (passes.isEmpty()) {
+            return new ExpiryChunk(0, afterId, 0);
+        }
+
+        List<Long> ids = passes.stream().map(VisitorPass::getId).toList();
+        int updated = passRepository.expireApprovedPasses(ids, LocalDateTime.now());
+
+        List<VisitorPass> expiredPasses = passes;
+        if (updated < ids.size()) {
+            // Some passes changed state after they were read (e.g. checked in); skip those
+            Set<Long> expiredIds = new HashSet<>(passRepository.findIdsByIdInAndStatus(ids, PassStatus.EXPIRED.name()));
+            expiredPasses = passes.stream().filter(pass -> expiredIds.contains(pass.getId())).toList();
+        }
+
+        passStatsService.recordTransitions(expiredPasses, PassStatus.APPROVED.name(), PassStatus.EXPIRED.name());
+        passCodeIndex.statusChanged(expiredPasses, PassStatus.EXPIRED.name());
+
+        List<AuditLog> auditLogs = new ArrayList<>(expiredPasses.size());
+        List<PassExpiredEvent> events = new ArrayList<>(expiredPasses.size());
+        for (VisitorPass pass : expiredPasses) {
+            Long tenantId = pass.getTenant().getId();
 
             // Log the system event (no specific user performed this action)
-            auditService.logEvent("PASS_EXPIRED_SYSTEM", null, pass.getTenant().getId(), pass.getId());
+            auditLogs.add(auditService.buildEvent("PASS_EXPIRED_SYSTEM", null, tenantId, pass.getId()));
 
-            // Find the Tenant Admin to notify
-            String tenantAdminEmail = findTenantAdminEmail(pass.getTenant().getId());
+            // Find the Tenant Admins to notify
+            List<String> adminEmails = tenantAdminEmails.getOrDefault(tenantId, List.of());
 
-            // Create and send the notification event
-            PassExpiredEvent event = new PassExpiredEvent(
+            events.add(new PassExpiredEvent(
                     pass.getId(),
                     pass.getVisitorName(),
                     pass.getVisitDateTime(),
                     pass.getCreatedBy().getEmail(),
-                    tenantAdminEmail,
-                    pass.getTenant().getId()
-            );
-
-            // For expired events, you might want a different routing key or use the same one
-            // We'll create a new one for clarity in RabbitMQConfig
-            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_EXPIRED, event);
+                    adminEmails.isEmpty() ? null : adminEmails.get(0),
+                    adminEmails,
+                    tenantId
+            ));
         }
+        auditService.logEvents(auditLogs);
+        // Events are committed with the chunk and delivered by the outbox relay
+        outboxService.publishAll(RabbitMQConfig.ROUTING_KEY_EXPIRED, events);
 
-        logger.info("Successfully expired {} passes.", passesToExpire.size());
+        long lastId = ids.get(ids.size() - 1);
+        saveCheckpoint(jobName, runDate, lastId);
+        return new ExpiryChunk(passes.size(), lastId, events.size());
+    }
+
+    private long loadCheckpoint(String jobName, LocalDate runDate) {
+        return checkpointRepository.findById(jobName)
+                .filter(checkpoint -> runDate.equals(checkpoint.getRunDate()))
+                .map(JobCheckpoint::getLastProcessedId)
+                .orElse(0L);
+    }
+
+    private void saveCheckpoint(String jobName, LocalDate runDate, long lastProcessedId) {
+        JobCheckpoint checkpoint = new JobCheckpoint();
+        checkpoint.setJobName(jobName);
+        checkpoint.setRunDate(runDate);
+        checkpoint.setLastProcessedId(lastProcessedId);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
     }
 
     /**
-     * Helper method to find the email of a Tenant Admin for a given tenant.
-     * @param tenantId The ID of the tenant.
-     * @return The email of the Tenant Admin, or null if not found.
+     * Builds a tenantId -> admin emails lookup for the whole run.
+     * A tenant may have several admins; all of them are notified.
      */
-    private String findTenantAdminEmail(Long tenantId) {
-        // This is a simple implementation. A more optimized approach would be a custom query.
-        Optional<User> tenantAdmin = userRepository.findAll().stream()
-                .filter(user -> "ROLE_TENANT_ADMIN".equals(user.getRole()) &&
-                        user.getTenant() != null &&
-                        user.getTenant().getId().equals(tenantId))
-                .findFirst();
-        return tenantAdmin.map(User::getEmail).orElse(null);
+    private Map<Long, List<String>> loadTenantAdminEmails() {
+        Map<Long, List<String>> emailsByTenant = new HashMap<>();
+        for (UserRepository.TenantAdminEmail admin : userRepository.findActiveTenantAdminEmails()) {
+            emailsByTenant.computeIfAbsent(admin.getTenantId(), id -> new ArrayList<>()).add(admin.getEmail());
+        }
+        return emailsByTenant;
+    }
+
+    private record ExpiryChunk(int scanned, long lastId, int expired) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,444 @@
+package com.gt.visitor_pass_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gt.visitor_pass_service.config.RabbitMQConfig;
+import com.gt.visitor_pass_service.dto.CreatePassRequest;
+import com.gt.visitor_pass_service.dto.PassCreatedEvent;
+import com.gt.visitor_pass_service.dto.PassImportJobResponse;
+import com.gt.visitor_pass_service.dto.PassImportRowError;
+import com.gt.visitor_pass_service.exception.ResourceNotFoundException;
+import com.gt.visitor_pass_service.model.AuditLog;
+import com.gt.visitor_pass_service.model.PassImportJob;
+import com.gt.visitor_pass_service.model.Tenant;
+import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
+import com.gt.visitor_pass_service.repository.PassImportErrorRepository;
+import com.gt.visitor_pass_service.repository.PassImportJobRepository;
+import com.gt.visitor_pass_service.repository.TenantRepository;
+import com.gt.visitor_pass_service.repository.UserRepository;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports visitor passes in bulk from a CSV or NDJSON upload.
+ * The upload is parsed row by row while it is being received. Valid rows are inserted in JDBC
+ * batches with pre-allocated pass codes, each batch in its own transaction together with its
+ * statistics, audit entries and PassCreatedEvents. Progress and per-row errors are committed
+ * after every batch to a {@link PassImportJob}, which clients can query while the import runs.
+ */
+@Service
+public class PassImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassImportService.class);
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private static final String INSERT_PASS_SQL =
+            "INSERT INTO visitor_passes (tenant_id, visitor_name, visitor_email, visitor_phone, purpose, visit_date_time, " +
+            "pass_code, status, created_by, created_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_ERROR_SQL =
+            "INSERT INTO pass_import_errors (job_id, line_number, message) VALUES (?, ?, ?)";
+    private static final int MAX_MESSAGE_LENGTH = 500;
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("visitorname", "visitoremail", "visitdatetime");
+
+    private final UserRepository userRepository;
+    private final TenantRepository tenantRepository;
+    private final VisitorPassRepository passRepository;
+    private final PassImportJobRepository jobRepository;
+    private final PassImportErrorRepository errorRepository;
+    private final PassCodeGenerator passCodeGenerator;
+    private final PassStatsService passStatsService;
+    private final AuditService auditService;
+    private final OutboxService outboxService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxRows;
+    private final int maxRecordedErrors;
+
+    public PassImportService(UserRepository userRepository,
+                             TenantRepository tenantRepository,
+                             VisitorPassRepository passRepository,
+                             PassImportJobRepository jobRepository,
+                             PassImportErrorRepository errorRepository,
+                             PassCodeGenerator passCodeGenerator,
+                             PassStatsService passStatsService,
+                             AuditService auditService,
+                             OutboxService outboxService,
+                             JdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.imports.batch-size:500}") int batchSize,
+                             @Value("${app.imports.max-rows:50000}") int maxRows,
+                             @Value("${app.imports.max-recorded-errors:1000}") int maxRecordedErrors) {
+        this.userRepository = userRepository;
+        this.tenantRepository = tenantRepository;
+        this.passRepository = passRepository;
+        this.jobRepository = jobRepository;
+        this.errorRepository = errorRepository;
+        this.passCodeGenerator = passCodeGenerator;
+        this.passStatsService = passStatsService;
+        this.auditService = auditService;
+        this.outboxService = outboxService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.maxRecordedErrors = maxRecordedErrors;
+    }
+
+    /**
+     * Runs an import to completion while the upload is read.
+     * Rows are created as PENDING passes of the tenant, with the importing user as their creator.
+     *
+     * @return The finished job, including the recorded row errors.
+     */
+    public PassImportJobResponse importPasses(Long tenantId, String creatorEmail, Format format, InputStream upload) {
+        User creator = userRepository.findByEmail(creatorEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", creatorEmail));
+        Tenant tenant = tenantRepository.findById(tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tenant", "id", tenantId));
+
+        PassImportJob job = new PassImportJob();
+        job.setTenantId(tenantId);
+        job.setCreatedByUserId(creator.getId());
+        job.setFormat(format.name());
+        job.setStatus(STATUS_RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getStartedAt());
+        jobRepository.save(job);
+
+        long start = System.nanoTime();
+        ImportBatch batch = new ImportBatch(tenant, creator);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(upload, StandardCharsets.UTF_8))) {
+            RowSource rows = format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                if (job.getRowsRead() >= maxRows) {
+                    job.setMessage("Stopped after the maximum of " + maxRows + " rows; the rest of the upload was not imported.");
+                    break;
+                }
+                job.setRowsRead(job.getRowsRead() + 1);
+                String error = row.error() != null ? row.error() : validate(row.request());
+                if (error != null) {
+                    batch.errors.add(new PassImportRowError(row.line(), error));
+                } else {
+                    batch.rows.add(row);
+                }
+                if (batch.rows.size() >= batchSize || batch.errors.size() >= batchSize) {
+                    flush(job, batch);
+                }
+            }
+            flush(job, batch);
+            job.setStatus(STATUS_COMPLETED);
+        } catch (IOException | ImportAbortedException ex) {
+            // Rows of batches already flushed stay imported; the job reports where it stopped
+            job.setStatus(STATUS_FAILED);
+            job.setMessage(truncate("Import stopped after " + job.getRowsRead() + " rows: " + ex.getMessage(), 1000));
+            try {
+                flush(job, batch);
+            } catch (RuntimeException flushEx) {
+                logger.error("Import job {}: could not save the last batch after the import stopped.", job.getId(), flushEx);
+            }
+        } catch (RuntimeException ex) {
+            // Never leave a job RUNNING: whatever broke, the job is closed as failed
+            logger.error("Import job {} failed after {} rows.", job.getId(), job.getRowsRead(), ex);
+            job.setStatus(STATUS_FAILED);
+            job.setMessage(truncate("Import failed after " + job.getRowsRead() + " rows: " + ex.getMessage(), 1000));
+        }
+        job.setFinishedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getFinishedAt());
+        jobRepository.save(job);
+
+        logger.info("Import job {} for tenant {}: {} rows read, {} imported, {} failed in {} ms.", job.getId(), tenantId,
+                job.getRowsRead(), job.getRowsImported(), job.getRowsFailed(), (System.nanoTime() - start) / 1_000_000);
+        return getJob(tenantId, job.getId());
+    }
+
+    public PassImportJobResponse getJob(Long tenantId, Long jobId) {
+        PassImportJob job = jobRepository.findByIdAndTenantId(jobId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("PassImportJob", "id", jobId));
+        List<PassImportRowError> errors = errorRepository.findByJobIdOrderByLineNumber(jobId, PageRequest.of(0, maxRecordedErrors)).stream()
+                .map(error -> new PassImportRowError(error.getLineNumber(), error.getMessage()))
+                .toList();
+        return toResponse(job, errors);
+    }
+
+    public List<PassImportJobResponse> getRecentJobs(Long tenantId) {
+        return jobRepository.findTop20ByTenantIdOrderByStartedAtDesc(tenantId).stream()
+                .map(job -> toResponse(job, null))
+                .toList();
+    }
+
+    /**
+     * Saves the pending rows and commits the job's progress. A batch that cannot be saved is
+     * reported as failed rows; the import continues with the next batch.
+     */
+    private void flush(PassImportJob job, ImportBatch batch) {
+        if (batch.rows.isEmpty() && batch.errors.isEmpty()) {
+            return;
+        }
+        if (!batch.rows.isEmpty()) {
+            try {
+                Integer imported = transactionTemplate.execute(status -> insertBatch(batch));
+                job.setRowsImported(job.getRowsImported() + (imported != null ? imported : 0));
+            } catch (DataAccessException | IllegalStateException ex) {
+                logger.warn("Import job {}: a batch of {} rows could not be saved: {}", job.getId(), batch.rows.size(), ex.getMessage());
+                String reason = "Could not be saved: " + (ex instanceof DataAccessException dataAccessException
+                        ? dataAccessException.getMostSpecificCause().getMessage()
+                        : ex.getMessage());
+                batch.rows.forEach(row -> batch.errors.add(new PassImportRowError(row.line(), reason)));
+            }
+        }
+
+        int previouslyFailed = job.getRowsFailed();
+        job.setRowsFailed(previouslyFailed + batch.errors.size());
+        job.setUpdatedAt(LocalDateTime.now());
+        // Only the first errors of a job are kept; the counters still include all of them
+        List<PassImportRowError> recorded = batch.errors.subList(0,
+                Math.max(0, Math.min(batch.errors.size(), maxRecordedErrors - previouslyFailed)));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!recorded.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ERROR_SQL, recorded.stream()
+                        .map(error -> new Object[]{job.getId(), error.getLine(), truncate(error.getMessage(), MAX_MESSAGE_LENGTH)})
+                        .toList());
+            }
+            jobRepository.save(job);
+        });
+        batch.rows.clear();
+        batch.errors.clear();
+    }
+
+    /**
+     * Inserts one batch of passes in the caller's transaction: one code allocation, one JDBC batch,
+     * one ID lookup, then batched statistics, audit entries and outbox events.
+     */
+    private int insertBatch(ImportBatch batch) {
+        Long tenantId = batch.tenant.getId();
+        User creator = batch.creator;
+        List<String> codes = passCodeGenerator.nextCodes(tenantId, batch.rows.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<VisitorPass> passes = new ArrayList<>(batch.rows.size());
+        List<Object[]> params = new ArrayList<>(batch.rows.size());
+        for (int i = 0; i < batch.rows.size(); i++) {
+            CreatePassRequest request = batch.rows.get(i).request();
+            VisitorPass pass = new VisitorPass();
+            pass.setTenant(batch.tenant);
+            pass.setVisitorName(request.getVisitorName());
+            pass.setVisitorEmail(request.getVisitorEmail());
+            pass.setVisitorPhone(request.getVisitorPhone());
+            pass.setPurpose(request.getPurpose());
+            pass.setVisitDateTime(request.getVisitDateTime());
+            pass.setPassCode(codes.get(i));
+            pass.setStatus(PassStatus.PENDING.name());
+            pass.setCreatedBy(creator);
+            pass.setCreatedAt(now);
+            passes.add(pass);
+            params.add(new Object[]{tenantId, pass.getVisitorName(), pass.getVisitorEmail(), pass.getVisitorPhone(),
+                    pass.getPurpose(), Timestamp.valueOf(pass.getVisitDateTime()), pass.getPassCode(),
+                    pass.getStatus(), creator.getId(), Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_PASS_SQL, params);
+
+        Map<String, Long> idsByCode = passRepository.findIdsByPassCodes(tenantId, codes).stream()
+                .collect(Collectors.toMap(VisitorPassRepository.PassCodeId::getPassCode, VisitorPassRepository.PassCodeId::getId));
+        passes.forEach(pass -> pass.setId(idsByCode.get(pass.getPassCode())));
+
+        passStatsService.recordCreated(passes);
+
+        List<AuditLog> auditLogs = new ArrayList<>(passes.size());
+        List<PassCreatedEvent> events = new ArrayList<>(passes.size());
+        for (VisitorPass pass : passes) {
+            auditLogs.add(auditService.buildEvent("PASS_CREATED", creator.getId(), tenantId, pass.getId()));
+            events.add(PassCreatedEvent.builder()
+                    .passId(pass.getId())
+                    .tenantId(tenantId)
+                    .visitorName(pass.getVisitorName())
+                    .visitorEmail(pass.getVisitorEmail())
+                    .purpose(pass.getPurpose())
+                    .visitDateTime(pass.getVisitDateTime())
+                    .passCode(pass.getPassCode())
+                    .employeeEmail(creator.getEmail())
+                    .employeeName(creator.getName())
+                    .tenantName(batch.tenant.getLocationDetails())
+                    .build());
+        }
+        auditService.logEvents(auditLogs);
+        outboxService.publishAll(RabbitMQConfig.ROUTING_KEY_PASS_CREATED, events);
+        return passes.size();
+    }
+
+    private String validate(CreatePassRequest request) {
+        if (request == null) {
+            return "The row is empty.";
+        }
+        Set<ConstraintViolation<CreatePassRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+    }
+
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            throw new ImportAbortedException("The upload is empty; a CSV header row is required.");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // A byte order mark written by spreadsheet tools would otherwise stick to the first column name
+            columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.keySet().containsAll(REQUIRED_CSV_COLUMNS)) {
+            throw new ImportAbortedException("The CSV header must contain the columns visitorName, visitorEmail and visitDateTime.");
+        }
+
+        return () -> {
+            List<String> fields;
+            do {
+                fields = records.next();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+            if (fields == null) {
+                return null;
+            }
+            int line = records.recordLine();
+            CreatePassRequest request = new CreatePassRequest();
+            request.setVisitorName(column(fields, columns, "visitorname"));
+            request.setVisitorEmail(column(fields, columns, "visitoremail"));
+            request.setVisitorPhone(column(fields, columns, "visitorphone"));
+            request.setPurpose(column(fields, columns, "purpose"));
+            String visitDateTime = column(fields, columns, "visitdatetime");
+            if (visitDateTime != null) {
+                try {
+                    request.setVisitDateTime(LocalDateTime.parse(visitDateTime));
+                } catch (DateTimeParseException ex) {
+                    return new ImportRow(line, null, "visitDateTime must be an ISO-8601 local date-time, e.g. 2025-03-01T09:30");
+                }
+            }
+            return new ImportRow(line, request, null);
+        };
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        int[] lineNumber = {0};
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                CreatePassRequest request = objectMapper.readValue(line, CreatePassRequest.class);
+                if (request == null) {
+                    // A literal "null" line parses without error
+                    return new ImportRow(lineNumber[0], null, "Expected a JSON object but found null.");
+                }
+                return new ImportRow(lineNumber[0], request, null);
+            } catch (JsonProcessingException ex) {
+                return new ImportRow(lineNumber[0], null, "Invalid JSON: " + ex.getOriginalMessage());
+            }
+        };
+    }
+
+    private static String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return StringUtils.hasText(value) ? value : null;
+    }
+
+    private static String truncate(String message, int maxLength) {
+        if (message == null || message.length() <= maxLength) {
+            return message;
+        }
+        return message.substring(0, maxLength);
+    }
+
+    private static PassImportJobResponse toResponse(PassImportJob job, List<PassImportRowError> errors) {
+        return PassImportJobResponse.builder()
+                .id(job.getId())
+                .tenantId(job.getTenantId())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .rowsRead(job.getRowsRead())
+                .rowsImported(job.getRowsImported())
+                .rowsFailed(job.getRowsFailed())
+                .message(job.getMessage())
+                .startedAt(job.getStartedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .errors(errors)
+                .build();
+    }
+
+    private interface RowSource {
+        ImportRow next() throws IOException;
+    }
+
+    // Either a parsed request or the reason the row could not be parsed
+    private record ImportRow(int line, CreatePassRequest request, String error) {
+    }
+
+    private static final class ImportBatch {
+        private final Tenant tenant;
+        private final User creator;
+        private final List<ImportRow> rows = new ArrayList<>();
+        private final List<PassImportRowError> errors = new ArrayList<>();
+
+        private ImportBatch(Tenant tenant, User creator) {
+            this.tenant = tenant;
+            this.creator = creator;
+        }
+    }
+
+    private static class ImportAbortedException extends RuntimeException {
+        ImportAbortedException(String message) {
+            super(message);
+        }
+    }
+}
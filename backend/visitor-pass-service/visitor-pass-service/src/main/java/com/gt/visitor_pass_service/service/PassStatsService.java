@@ -0,0 +1,169 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.repository.TenantDailyPassStatRepository;
+import com.gt.visitor_pass_service.repository.TenantRepository;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the tenant_daily_pass_stats rollup (tenant, visit date, status -> count).
+ * Every pass state change adjusts the affected counters in the caller's transaction,
+ * so dashboards can read a handful of counter rows instead of scanning visitor_passes.
+ */
+@Service
+public class PassStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassStatsService.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO tenant_daily_pass_stats (tenant_id, stat_date, status, pass_count) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE pass_count = pass_count + VALUES(pass_count)";
+    private static final String ACTUAL_COUNTS_SQL =
+            "SELECT DATE(visit_date_time) AS stat_date, status, COUNT(*) AS pass_count FROM visitor_passes " +
+            "WHERE tenant_id = ? AND visit_date_time IS NOT NULL AND status IS NOT NULL " +
+            "GROUP BY DATE(visit_date_time), status";
+    private static final String STORED_COUNTS_SQL =
+            "SELECT stat_date, status, pass_count FROM tenant_daily_pass_stats WHERE tenant_id = ?";
+    private static final String DELETE_EMPTY_SQL =
+            "DELETE FROM tenant_daily_pass_stats WHERE tenant_id = ? AND pass_count = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantDailyPassStatRepository statRepository;
+    private final VisitorPassRepository passRepository;
+    private final TenantRepository tenantRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public PassStatsService(JdbcTemplate jdbcTemplate,
+                            TenantDailyPassStatRepository statRepository,
+                            VisitorPassRepository passRepository,
+                            TenantRepository tenantRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statRepository = statRepository;
+        this.passRepository = passRepository;
+        this.tenantRepository = tenantRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Both reads of a reconciliation must see the same snapshot
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public void recordCreated(VisitorPass pass) {
+        recordCreated(List.of(pass));
+    }
+
+    public void recordCreated(List<VisitorPass> passes) {
+        Map<StatKey, Long> deltas = new LinkedHashMap<>();
+        for (VisitorPass pass : passes) {
+            addDelta(deltas, pass.getTenant().getId(), pass.getVisitDateTime(), pass.getStatus(), 1);
+        }
+        applyDeltas(deltas);
+    }
+
+    public void recordTransition(VisitorPass pass, String fromStatus, String toStatus) {
+        recordTransitions(List.of(pass), fromStatus, toStatus);
+    }
+
+    /**
+     * Moves many passes from one status to another, collapsing the changes into
+     * one counter update per (tenant, date, status).
+     */
+    public void recordTransitions(List<VisitorPass> passes, String fromStatus, String toStatus) {
+        if (passes.isEmpty() || fromStatus.equals(toStatus)) {
+            return;
+        }
+        Map<StatKey, Long> deltas = new LinkedHashMap<>();
+        for (VisitorPass pass : passes) {
+            Long tenantId = pass.getTenant().getId();
+            addDelta(deltas, tenantId, pass.getVisitDateTime(), fromStatus, -1);
+            addDelta(deltas, tenantId, pass.getVisitDateTime(), toStatus, 1);
+        }
+        applyDeltas(deltas);
+    }
+
+    /**
+     * Recomputes the rollup from visitor_passes, correcting any drift.
+     * Runs nightly after the expiry job, one short transaction per tenant: plain (non-locking)
+     * reads of the actual and stored counts, then the difference applied as upsert deltas. Pass
+     * transitions committed meanwhile add their own deltas on top, so nothing is locked against
+     * them and none of their changes are overwritten.
+     */
+    @Scheduled(cron = "0 30 1 * * ?") // Runs every day at 1:30 AM
+    public void rebuild() {
+        long start = System.nanoTime();
+        int corrected = 0;
+        for (Long tenantId : tenantRepository.findAllIds()) {
+            Integer rows = transactionTemplate.execute(status -> reconcile(tenantId));
+            corrected += rows != null ? rows : 0;
+        }
+        logger.info("Rebuilt tenant pass statistics in {} ms; {} counters corrected.", (System.nanoTime() - start) / 1_000_000, corrected);
+    }
+
+    private int reconcile(Long tenantId) {
+        Map<StatKey, Long> deltas = new LinkedHashMap<>();
+        jdbcTemplate.query(STORED_COUNTS_SQL, (RowCallbackHandler) rs -> deltas.merge(
+                new StatKey(tenantId, rs.getDate("stat_date").toLocalDate(), rs.getString("status")), -rs.getLong("pass_count"), Long::sum),
+                tenantId);
+        jdbcTemplate.query(ACTUAL_COUNTS_SQL, (RowCallbackHandler) rs -> deltas.merge(
+                new StatKey(tenantId, rs.getDate("stat_date").toLocalDate(), rs.getString("status")), rs.getLong("pass_count"), Long::sum),
+                tenantId);
+        int corrected = applyDeltas(deltas);
+        if (corrected > 0) {
+            jdbcTemplate.update(DELETE_EMPTY_SQL, tenantId);
+        }
+        return corrected;
+    }
+
+    /**
+     * Seeds the rollup on the first start after it was introduced.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (statRepository.count() == 0 && passRepository.count() > 0) {
+            logger.info("Tenant pass statistics are empty. Building them from visitor passes...");
+            rebuild();
+        }
+    }
+
+    private void addDelta(Map<StatKey, Long> deltas, Long tenantId, LocalDateTime visitDateTime, String status, long delta) {
+        // Passes without a visit date or tenant are not part of any daily statistic
+        if (tenantId == null || visitDateTime == null || status == null) {
+            return;
+        }
+        deltas.merge(new StatKey(tenantId, visitDateTime.toLocalDate(), status), delta, Long::sum);
+    }
+
+    private int applyDeltas(Map<StatKey, Long> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                rows.add(new Object[]{key.tenantId(), Date.valueOf(key.date()), key.status(), delta});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        }
+        return rows.size();
+    }
+
+    private record StatKey(Long tenantId, LocalDate date, String status) {
+    }
+}
@@ -5,35 +5,49 @@ import com.gt.visitor_pass_service.dto.SuperAdminDashboardDTO;
 import com.gt.visitor_pass_service.dto.TenantActivityDTO;
 import com.gt.visitor_pass_service.dto.VisitorPassResponse;
 import com.gt.visitor_pass_service.model.Tenant;
+import com.gt.visitor_pass_service.repository.TenantCount;
+import com.gt.visitor_pass_service.repository.TenantDailyPassStatRepository;
 import com.gt.visitor_pass_service.repository.TenantRepository;
 import com.gt.visitor_pass_service.repository.UserRepository;
 import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class SuperAdminDashboardService {
 
+    private static final String GLOBAL_TENANT_NAME = "Global Administration";
+
     private final TenantRepository tenantRepository;
     private final UserRepository userRepository;
     private final VisitorPassRepository passRepository;
     private final VisitorPassService visitorPassService; // For re-using the DTO mapper
+    private final TenantCalendarService tenantCalendarService;
+    private final TenantDailyPassStatRepository passStatRepository;
 
     public SuperAdminDashboardService(TenantRepository tenantRepository,
                                       UserRepository userRepository,
                                       VisitorPassRepository passRepository,
-                                      VisitorPassService visitorPassService) {
+                                      VisitorPassService visitorPassService,
+                                      TenantCalendarService tenantCalendarService,
+                                      TenantDailyPassStatRepository passStatRepository) {
         this.tenantRepository = tenantRepository;
         this.userRepository = userRepository;
         this.passRepository = passRepository;
         this.visitorPassService = visitorPassService;
+        this.tenantCalendarService = tenantCalendarService;
+        this.passStatRepository = passStatRepository;
     }
 
-    public SuperAdminDashboardDTO getDashboardData() {
+    public SuperAdminDashboardDTO getDashboardData(Pageable tenantPageable) {
         GlobalStatsDTO globalStats = buildGlobalStats();
-        List<TenantActivityDTO> tenantActivity = buildTenantActivity();
+        List<TenantActivityDTO> tenantActivity = getTenantActivity(tenantPageable).getContent();
         List<VisitorPassResponse> recentPasses = getRecentPasses();
 
         return SuperAdminDashboardDTO.builder()
@@ -44,29 +58,51 @@ public class SuperAdminDashboardService {
     }
 
     private GlobalStatsDTO buildGlobalStats() {
+        TenantCalendarService.DayRange today = tenantCalendarService.today();
         return GlobalStatsDTO.builder()
                 .totalTenants(tenantRepository.count() - 1) // Subtract 1 for the "Global" tenant
                 .totalUsers(userRepository.count())
-                .totalPassesIssued(passRepository.count())
-                .activePassesToday(passRepository.countActivePassesForToday())
+                .totalPassesIssued(passStatRepository.sumAllPasses())
+                .activePassesToday(passStatRepository.sumActivePassesForDay(today.day()))
                 .build();
     }
 
-    private List<TenantActivityDTO> buildTenantActivity() {
-        List<Tenant> tenants = tenantRepository.findAll().stream()
-                .filter(tenant -> !"Global Administration".equals(tenant.getName()))
-                .collect(Collectors.toList());
+    /**
+     * Builds per-tenant activity for one page of tenants using grouped aggregates:
+     * one query for user counts, one for all-time pass counts, and one per distinct
+     * tenant "today" (usually a single query, unless tenants span time zones).
+     * Pass counts come from the tenant_daily_pass_stats rollup.
+     */
+    public Page<TenantActivityDTO> getTenantActivity(Pageable pageable) {
+        Page<Tenant> tenants = tenantRepository.findByNameNot(GLOBAL_TENANT_NAME, pageable);
+        if (tenants.isEmpty()) {
+            return Page.empty(pageable);
+        }
 
-        return tenants.stream()
-                .map(tenant -> TenantActivityDTO.builder()
-                        .tenantId(tenant.getId())
-                        .tenantName(tenant.getName())
-                        .locationDetails(tenant.getLocationDetails()) // <-- ADD THIS LINE
-                        .userCount(userRepository.countByTenantId(tenant.getId()))
-                        .passesToday(passRepository.countPassesForTenantToday(tenant.getId()))
-                        .totalPassesAllTime(passRepository.countByTenantId(tenant.getId()))
-                        .build())
-                .collect(Collectors.toList());
+        List<Long> tenantIds = tenants.stream().map(Tenant::getId).collect(Collectors.toList());
+        Map<Long, Long> userCounts = toCountMap(userRepository.countGroupedByTenant(tenantIds));
+        Map<Long, Long> totalPassCounts = toCountMap(passStatRepository.sumGroupedByTenant(tenantIds));
+
+        // The zone comes from the tenants already loaded, not from one lookup per tenant
+        Map<TenantCalendarService.DayRange, List<Long>> tenantsByDay = tenants.stream()
+                .collect(Collectors.groupingBy(tenant -> tenantCalendarService.today(tenant),
+                        Collectors.mapping(Tenant::getId, Collectors.toList())));
+        Map<Long, Long> passesToday = new HashMap<>();
+        tenantsByDay.forEach((today, ids) ->
+                passesToday.putAll(toCountMap(passStatRepository.sumGroupedByTenantForDay(ids, today.day()))));
+
+        return tenants.map(tenant -> TenantActivityDTO.builder()
+                .tenantId(tenant.getId())
+                .tenantName(tenant.getName())
+                .locationDetails(tenant.getLocationDetails())
+                .userCount(userCounts.getOrDefault(tenant.getId(), 0L))
+                .passesToday(passesToday.getOrDefault(tenant.getId(), 0L))
+                .totalPassesAllTime(totalPassCounts.getOrDefault(tenant.getId(), 0L))
+                .build());
+    }
+
+    private Map<Long, Long> toCountMap(List<TenantCount> counts) {
+        return counts.stream().collect(Collectors.toMap(TenantCount::getTenantId, TenantCount::getTotal));
     }
 
     private List<VisitorPassResponse> getRecentPasses() {
@@ -0,0 +1,115 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.model.Tenant;
+import com.gt.visitor_pass_service.repository.TenantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Works out what "today" means for a tenant.
+ * Visit times are stored as the site's local wall-clock time, so a day is the half-open
+ * range [startOfDay, startOfNextDay) in that local time. Queries use these bounds directly
+ * instead of wrapping columns in DATE(...), which keeps them index-friendly.
+ * Zones are cached per tenant; an entry is re-read once it is older than the maximum age (the
+ * time zone can be changed directly in the database, on any instance's behalf) or as soon as a
+ * loaded Tenant shows a different zone.
+ */
+@Service
+public class TenantCalendarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantCalendarService.class);
+
+    private final TenantRepository tenantRepository;
+    private final long maxAgeNanos;
+    private final Map<Long, CachedZone> zoneCache = new ConcurrentHashMap<>();
+
+    public TenantCalendarService(TenantRepository tenantRepository,
+                                 @Value("${app.tenant-zone-cache.max-age-ms:300000}") long maxAgeMs) {
+        this.tenantRepository = tenantRepository;
+        this.maxAgeNanos = maxAgeMs * 1_000_000;
+    }
+
+    public DayRange today(Long tenantId) {
+        return DayRange.of(LocalDate.now(getZone(tenantId)));
+    }
+
+    public DayRange today(Tenant tenant) {
+        return DayRange.of(LocalDate.now(getZone(tenant)));
+    }
+
+    /**
+     * @return Today's range in the server's time zone, for system-wide statistics.
+     */
+    public DayRange today() {
+        return DayRange.of(LocalDate.now());
+    }
+
+    public ZoneId getZone(Long tenantId) {
+        CachedZone cached = zoneCache.get(tenantId);
+        if (cached != null && System.nanoTime() - cached.loadedAtNanos() < maxAgeNanos) {
+            return cached.zone();
+        }
+        String timeZone = tenantRepository.findById(tenantId).map(Tenant::getTimeZone).orElse(null);
+        return cache(tenantId, timeZone);
+    }
+
+    /**
+     * @return The zone of a tenant that is already loaded, without another lookup.
+     */
+    public ZoneId getZone(Tenant tenant) {
+        CachedZone cached = zoneCache.get(tenant.getId());
+        if (cached != null && Objects.equals(cached.timeZone(), tenant.getTimeZone())) {
+            return cached.zone();
+        }
+        return cache(tenant.getId(), tenant.getTimeZone());
+    }
+
+    /**
+     * Drops the cached zone of a tenant, e.g. after its time zone was changed.
+     */
+    public void evict(Long tenantId) {
+        zoneCache.remove(tenantId);
+    }
+
+    private ZoneId cache(Long tenantId, String timeZone) {
+        ZoneId zone = parseZone(timeZone);
+        zoneCache.put(tenantId, new CachedZone(timeZone, zone, System.nanoTime()));
+        return zone;
+    }
+
+    private ZoneId parseZone(String zoneId) {
+        if (!StringUtils.hasText(zoneId)) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(zoneId);
+        } catch (DateTimeException ex) {
+            logger.warn("Unknown tenant time zone '{}', falling back to the server time zone", zoneId);
+            return ZoneId.systemDefault();
+        }
+    }
+
+    private record CachedZone(String timeZone, ZoneId zone, long loadedAtNanos) {
+    }
+
+    public record DayRange(LocalDateTime start, LocalDateTime end) {
+        public static DayRange of(LocalDate day) {
+            return new DayRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        }
+
+        public LocalDate day() {
+            return start.toLocalDate();
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.gt.visitor_pass_service.service;
 
 import com.gt.visitor_pass_service.config.security.JwtTokenProvider;
 import com.gt.visitor_pass_service.exception.AccessDeniedException;
+import io.jsonwebtoken.Claims;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Service
 public class TenantSecurityService {
@@ -19,11 +22,25 @@ public class TenantSecurityService {
             throw new AccessDeniedException("Authorization header is missing or invalid.");
         }
 
-        String token = authorizationHeader.substring(7);
-        Long tokenTenantId = tokenProvider.getTenantIdFromJWT(token);
+        Long tokenTenantId = resolveClaims(authorizationHeader.substring(7)).get("tenantId", Long.class);
 
         if (tokenTenantId == null || !tokenTenantId.equals(requiredTenantId)) {
             throw new AccessDeniedException("You do not have permission to access resources for this location.");
         }
     }
+
+    /**
+     * Returns the claims already verified by the JWT filter for the current request,
+     * falling back to the token provider when called outside of a filtered request.
+     */
+    private Claims resolveClaims(String token) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object claims = attributes.getAttribute(JwtTokenProvider.CLAIMS_REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (claims instanceof Claims verifiedClaims) {
+                return verifiedClaims;
+            }
+        }
+        return tokenProvider.getClaims(token);
+    }
 }
\ No newline at end of file
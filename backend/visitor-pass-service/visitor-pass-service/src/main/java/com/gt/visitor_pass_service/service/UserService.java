@@ -1,5 +1,6 @@
 package com.gt.visitor_pass_service.service;
 
+import com.gt.visitor_pass_service.config.security.DeactivatedUserCache;
 import com.gt.visitor_pass_service.dto.*;
 import com.gt.visitor_pass_service.exception.AccessDeniedException;
 import com.gt.visitor_pass_service.exception.ResourceNotFoundException;
@@ -10,7 +11,8 @@ import com.gt.visitor_pass_service.repository.UserRepository;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import com.gt.visitor_pass_service.dto.UserCreatedEvent;
 import com.gt.visitor_pass_service.config.RabbitMQConfig;
 import org.springframework.data.domain.Page;
@@ -30,15 +32,17 @@ public class UserService { // Renamed from AdminService
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuditService auditService;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
+    private final DeactivatedUserCache deactivatedUserCache;
 
 
-    public UserService(TenantRepository tenantRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, AuditService auditService, RabbitTemplate rabbitTemplate) {
+    public UserService(TenantRepository tenantRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, AuditService auditService, OutboxService outboxService, DeactivatedUserCache deactivatedUserCache) {
         this.tenantRepository = tenantRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.auditService = auditService;
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxService = outboxService;
+        this.deactivatedUserCache = deactivatedUserCache;
     }
 
     @Transactional
@@ -98,11 +102,13 @@ public class UserService { // Renamed from AdminService
         return tenantRepository.save(tenant);
     }
 
+    @Transactional
     public UserResponse createTenantAdmin(Long tenantId, CreateUserRequest request) {
         request.setRole("ROLE_TENANT_ADMIN");
         return createUser(tenantId, request);
     }
 
+    @Transactional
     public UserResponse createUser(Long tenantId, CreateUserRequest request) {
         Tenant tenant = tenantRepository.findById(tenantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tenant", "id", tenantId));
@@ -136,7 +142,7 @@ public class UserService { // Renamed from AdminService
                 "http://localhost:4200/login" // Your frontend login URL
         );
 
-        rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_USER_CREATED, event);
+        outboxService.publish(RabbitMQConfig.ROUTING_KEY_USER_CREATED, event);
 
         System.out.println(">>> UserCreatedEvent sent for user: " + savedUser.getEmail());
 
@@ -150,6 +156,7 @@ public class UserService { // Renamed from AdminService
         return userPage.map(this::mapToUserResponse);
     }
 
+    @Transactional
     public UserResponse updateUserStatus(Long userId, Long tenantId, boolean isActive) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
@@ -160,6 +167,19 @@ public class UserService { // Renamed from AdminService
 
         user.setActive(isActive);
         User savedUser = userRepository.save(user);
+        // Tokens are not re-checked against the database, so the auth filter relies on this cache;
+        // it is updated only once the change commits, so a rolled back update never locks a user out
+        Long savedUserId = savedUser.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (isActive) {
+                    deactivatedUserCache.markActive(savedUserId);
+                } else {
+                    deactivatedUserCache.markDeactivated(savedUserId);
+                }
+            }
+        });
         auditService.logEvent(isActive ? "USER_ACTIVATED" : "USER_DEACTIVATED", savedUser.getId(), tenantId, null);
         return mapToUserResponse(savedUser);
     }
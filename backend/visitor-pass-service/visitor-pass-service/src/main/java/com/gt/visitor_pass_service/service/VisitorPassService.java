@@ -2,41 +2,59 @@ package com.gt.visitor_pass_service.service;
 
 import com.gt.visitor_pass_service.config.RabbitMQConfig;
 import com.gt.visitor_pass_service.dto.*;
+import com.gt.visitor_pass_service.exception.BadRequestException;
+import com.gt.visitor_pass_service.exception.PassStateConflictException;
 import com.gt.visitor_pass_service.exception.ResourceNotFoundException;
 import com.gt.visitor_pass_service.model.User;
 import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.model.enums.PassStatus;
 import com.gt.visitor_pass_service.repository.UserRepository;
 import com.gt.visitor_pass_service.repository.VisitorPassRepository;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Service
 public class VisitorPassService {
 
+    private static final int MAX_SLICE_SIZE = 100;
+
     private final VisitorPassRepository passRepository;
     private final UserRepository userRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
     private final AuditService auditService;
+    private final TenantCalendarService tenantCalendarService;
+    private final PassStatsService passStatsService;
+    private final PassCodeIndex passCodeIndex;
+    private final PassCodeGenerator passCodeGenerator;
 
     public VisitorPassService(VisitorPassRepository passRepository,
                               UserRepository userRepository,
-                              RabbitTemplate rabbitTemplate,
-                              AuditService auditService) {
+                              OutboxService outboxService,
+                              AuditService auditService,
+                              TenantCalendarService tenantCalendarService,
+                              PassStatsService passStatsService,
+                              PassCodeIndex passCodeIndex,
+                              PassCodeGenerator passCodeGenerator) {
         this.passRepository = passRepository;
         this.userRepository = userRepository;
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxService = outboxService;
         this.auditService = auditService;
+        this.tenantCalendarService = tenantCalendarService;
+        this.passStatsService = passStatsService;
+        this.passCodeIndex = passCodeIndex;
+        this.passCodeGenerator = passCodeGenerator;
     }
 
     // Method for an Employee to create a pass
+    @Transactional
     public VisitorPassResponse createPass(Long tenantId, CreatePassRequest request, String creatorEmail) {
         User creator = userRepository.findByEmail(creatorEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", creatorEmail));
@@ -48,30 +66,35 @@ public class VisitorPassService {
         pass.setVisitorEmail(request.getVisitorEmail());
         pass.setPurpose(request.getPurpose());
         pass.setVisitDateTime(request.getVisitDateTime());
-        pass.setStatus("PENDING");
-        pass.setPassCode(UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        pass.setStatus(PassStatus.PENDING.name());
+        pass.setPassCode(passCodeGenerator.nextCode(creator.getTenant().getId()));
         pass.setCreatedBy(creator);
         pass.setCreatedAt(LocalDateTime.now());
 
         VisitorPass savedPass = passRepository.save(pass);
+        passStatsService.recordCreated(savedPass);
         auditService.logEvent("PASS_CREATED", creator.getId(), tenantId, savedPass.getId());
 
         PassCreatedEvent event = PassCreatedEvent.builder()
                 .passId(savedPass.getId())
+                .tenantId(tenantId)
                 .visitorName(savedPass.getVisitorName())
                 .visitorEmail(savedPass.getVisitorEmail())
+                .purpose(savedPass.getPurpose())
                 .visitDateTime(savedPass.getVisitDateTime())
                 .passCode(savedPass.getPassCode())
+                .employeeEmail(creator.getEmail())
                 .employeeName(creator.getName())
                 .tenantName(creator.getTenant().getLocationDetails())
                 .build();
 
-        rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_PASS_CREATED, event);
+        outboxService.publish(RabbitMQConfig.ROUTING_KEY_PASS_CREATED, event);
 
         return mapToResponse(savedPass);
     }
 
     // Method for an Approver to approve a pass
+    @Transactional
     public VisitorPassResponse approvePass(Long passId, String approverEmail) {
         User approver = userRepository.findByEmail(approverEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", approverEmail));
@@ -79,11 +102,10 @@ public class VisitorPassService {
         VisitorPass pass = passRepository.findById(passId)
                 .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "id", passId));
 
-        pass.setStatus("APPROVED");
-        pass.setApprovedBy(approver);
-        pass.setUpdatedAt(LocalDateTime.now());
-
-        VisitorPass savedPass = passRepository.save(pass);
+        String previousStatus = pass.getStatus();
+        VisitorPass savedPass = transition(pass, PassStatus.APPROVED, approver);
+        passStatsService.recordTransition(savedPass, previousStatus, savedPass.getStatus());
+        passCodeIndex.statusChanged(savedPass);
         auditService.logEvent("PASS_APPROVED", approver.getId(), pass.getTenant().getId(), savedPass.getId());
 
         PassApprovedEvent event = new PassApprovedEvent(
@@ -92,7 +114,7 @@ public class VisitorPassService {
                 savedPass.getVisitorName(),
                 savedPass.getCreatedBy().getEmail()
         );
-        rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_APPROVED, event);
+        outboxService.publish(RabbitMQConfig.ROUTING_KEY_APPROVED, event);
 
         return mapToResponse(savedPass);
     }
@@ -107,6 +129,7 @@ public class VisitorPassService {
      * @param rejectionReason The reason for the rejection.
      * @return A DTO of the updated visitor pass.
      */
+    @Transactional
     public VisitorPassResponse rejectPass(Long passId, String approverEmail, String reason) {
         User approver = userRepository.findByEmail(approverEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", approverEmail));
@@ -114,11 +137,10 @@ public class VisitorPassService {
         VisitorPass pass = passRepository.findById(passId)
                 .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "id", passId));
 
-        pass.setStatus("REJECTED");
-        pass.setApprovedBy(approver);
-        pass.setUpdatedAt(LocalDateTime.now());
-
-        VisitorPass savedPass = passRepository.save(pass);
+        String previousStatus = pass.getStatus();
+        VisitorPass savedPass = transition(pass, PassStatus.REJECTED, approver);
+        passStatsService.recordTransition(savedPass, previousStatus, savedPass.getStatus());
+        passCodeIndex.statusChanged(savedPass);
         auditService.logEvent("PASS_REJECTED", approver.getId(), pass.getTenant().getId(), savedPass.getId());
 
         PassRejectedEvent event = new PassRejectedEvent(
@@ -127,49 +149,83 @@ public class VisitorPassService {
                 savedPass.getCreatedBy().getEmail(),
                 reason
         );
-        rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY_REJECTED, event);
+        outboxService.publish(RabbitMQConfig.ROUTING_KEY_REJECTED, event);
 
         return mapToResponse(savedPass);
     }
 
 
     // Method for Security to check-in a visitor
+    @Transactional
     public VisitorPassResponse checkIn(Long passId) {
         VisitorPass pass = passRepository.findById(passId)
                 .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "id", passId));
 
-        if (!pass.getStatus().equals("APPROVED")) {
-            throw new IllegalStateException("Pass must be approved before check-in.");
-        }
-
-        pass.setStatus("CHECKED_IN");
-        pass.setUpdatedAt(LocalDateTime.now());
-
-        VisitorPass savedPass = passRepository.save(pass);
+        String previousStatus = pass.getStatus();
+        VisitorPass savedPass = transition(pass, PassStatus.CHECKED_IN, null);
+        passStatsService.recordTransition(savedPass, previousStatus, savedPass.getStatus());
+        passCodeIndex.statusChanged(savedPass);
         auditService.logEvent("PASS_CHECKED_IN", null, pass.getTenant().getId(), savedPass.getId());
 
         return mapToResponse(savedPass);
     }
 
+    @Transactional
     public VisitorPassResponse checkOut(Long passId, Long securityUserId) {
         VisitorPass pass = passRepository.findById(passId)
                 .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "id", passId));
 
-        if (!pass.getStatus().equals("CHECKED_IN")) {
-            throw new IllegalStateException("Pass must be checked-in before it can be checked-out.");
-        }
-
-        pass.setStatus("CHECKED_OUT");
-        pass.setUpdatedAt(LocalDateTime.now());
-
-        VisitorPass savedPass = passRepository.save(pass);
+        String previousStatus = pass.getStatus();
+        VisitorPass savedPass = transition(pass, PassStatus.CHECKED_OUT, null);
+        passStatsService.recordTransition(savedPass, previousStatus, savedPass.getStatus());
+        passCodeIndex.statusChanged(savedPass);
         auditService.logEvent("PASS_CHECKED_OUT", securityUserId, pass.getTenant().getId(), savedPass.getId());
         return mapToResponse(savedPass);
     }
 
-    public VisitorPassResponse findByPassCode(Long tenantId, String passCode) {
+    /**
+     * Applies one step of the pass state machine as a single conditional UPDATE.
+     * Fails with a conflict if the step is not allowed from the pass's status, or if another
+     * request (another gate, an approver, the expiry job) changed the pass after it was read.
+     *
+     * @param approver The user deciding on the pass, or null for steps that do not record one.
+     * @return The pass, updated in memory to match the database.
+     */
+    private VisitorPass transition(VisitorPass pass, PassStatus target, User approver) {
+        PassStatus current = PassStatus.valueOf(pass.getStatus());
+        if (!current.canTransitionTo(target)) {
+            throw new PassStateConflictException("Pass " + pass.getId() + " is " + current + " and cannot be moved to " + target + ".");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int updated = approver != null
+                ? passRepository.transitionStatusByApprover(pass.getId(), current.name(), target.name(), approver, now)
+                : passRepository.transitionStatus(pass.getId(), current.name(), target.name(), now);
+        if (updated == 0) {
+            throw new PassStateConflictException("Pass " + pass.getId() + " was changed by another request. Please reload it and try again.");
+        }
+        // The update detached the entity, so these changes are not written a second time
+        pass.setStatus(target.name());
+        pass.setUpdatedAt(now);
+        pass.setVersion(pass.getVersion() + 1);
+        if (approver != null) {
+            pass.setApprovedBy(approver);
+        }
+        return pass;
+    }
+
+    // Gate scans of today's approved and checked-in passes are answered from memory
+    public VisitorPassResponse findByPassCode(Long tenantId, String scannedCode) {
+        String passCode = PassCodeGenerator.normalize(scannedCode);
+        if (!passCodeGenerator.passesCheck(passCode)) {
+            throw new BadRequestException("Pass code '" + scannedCode + "' is invalid. Please scan or enter it again.");
+        }
+        Optional<PassCodeIndex.IndexedPass> indexed = passCodeIndex.find(tenantId, passCode);
+        if (indexed.isPresent()) {
+            return mapIndexedToResponse(indexed.get());
+        }
         VisitorPass pass = passRepository.findByTenantIdAndPassCode(tenantId, passCode)
                 .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "passCode", passCode));
+        passCodeIndex.offer(pass);
         return mapToResponse(pass);
     }
     // Get all passes for a specific tenant
@@ -178,6 +234,56 @@ public class VisitorPassService {
         return passPage.map(this::mapToResponse);
     }
 
+    /**
+     * Keyset-paginated tenant listing, newest first. Unlike the Page API, the cost of a
+     * slice does not grow with its depth and no count query is run.
+     *
+     * @param cursor The nextCursor of the previous slice, or null for the first slice.
+     */
+    public VisitorPassSliceResponse getPassSliceByTenant(Long tenantId, String cursor, int size) {
+        Pageable limit = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_SLICE_SIZE));
+        Slice<VisitorPass> slice;
+        if (cursor == null) {
+            slice = passRepository.findFirstSliceByTenantId(tenantId, limit);
+        } else {
+            PassCursor position = PassCursor.decode(cursor);
+            slice = position.createdAt() == null
+                    ? passRepository.findUndatedSliceByTenantIdBefore(tenantId, position.id(), limit)
+                    : passRepository.findSliceByTenantIdBefore(tenantId, position.createdAt(), position.id(), limit);
+        }
+        return toSliceResponse(slice);
+    }
+
+    public VisitorPassSliceResponse getPassHistorySliceForUser(String userEmail, String cursor, int size) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+
+        Pageable limit = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_SLICE_SIZE));
+        Slice<VisitorPass> slice;
+        if (cursor == null) {
+            slice = passRepository.findFirstSliceByCreatedById(user.getId(), limit);
+        } else {
+            PassCursor position = PassCursor.decode(cursor);
+            slice = position.createdAt() == null
+                    ? passRepository.findUndatedSliceByCreatedByIdBefore(user.getId(), position.id(), limit)
+                    : passRepository.findSliceByCreatedByIdBefore(user.getId(), position.createdAt(), position.id(), limit);
+        }
+        return toSliceResponse(slice);
+    }
+
+    private VisitorPassSliceResponse toSliceResponse(Slice<VisitorPass> slice) {
+        List<VisitorPass> passes = slice.getContent();
+        String nextCursor = slice.hasNext() && !passes.isEmpty()
+                ? PassCursor.of(passes.get(passes.size() - 1)).encode()
+                : null;
+        return VisitorPassSliceResponse.builder()
+                .content(passes.stream().map(this::mapToResponse).toList())
+                .size(passes.size())
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     public VisitorPassResponse getPassById(Long passId) {
         VisitorPass pass = passRepository.findById(passId)
                 .orElseThrow(() -> new ResourceNotFoundException("VisitorPass", "id", passId));
@@ -193,17 +299,8 @@ public class VisitorPassService {
     }
 
     public List<SecurityDashboardResponse> getTodaysVisitors(Long tenantId) {
-        return passRepository.findTodaysVisitorsByTenant(tenantId, LocalDate.now())
-                .stream()
-                .map(pass -> new SecurityDashboardResponse(
-                        pass.getId(),
-                        pass.getVisitorName(),
-                        pass.getPassCode(),
-                        pass.getStatus(),
-                        pass.getVisitDateTime(),
-                        pass.getCreatedBy().getName()
-                ))
-                .collect(Collectors.toList());
+        TenantCalendarService.DayRange today = tenantCalendarService.today(tenantId);
+        return passRepository.findTodaysVisitorsByTenant(tenantId, today.start(), today.end());
     }
 
     public VisitorPassResponse mapToResponse(VisitorPass pass) {
@@ -219,4 +316,18 @@ public class VisitorPassService {
         response.setCreatedByEmployeeName(pass.getCreatedBy().getName());
         return response;
     }
+
+    private VisitorPassResponse mapIndexedToResponse(PassCodeIndex.IndexedPass pass) {
+        VisitorPassResponse response = new VisitorPassResponse();
+        response.setId(pass.id());
+        response.setTenantId(pass.tenantId());
+        response.setVisitorName(pass.visitorName());
+        response.setVisitorEmail(pass.visitorEmail());
+        response.setPurpose(pass.purpose());
+        response.setStatus(pass.status());
+        response.setPassCode(pass.passCode());
+        response.setVisitDateTime(pass.visitDateTime());
+        response.setCreatedByEmployeeName(pass.createdByEmployeeName());
+        return response;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.gt.visitor_pass_service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this module (classes named *Benchmark).
+ * Excluded from the normal build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class JmhBenchmarkTests {
+
+	@Test
+	void runBenchmarks() throws Exception {
+		new Runner(new OptionsBuilder()
+				.include("com\\.gt\\.visitor_pass_service\\..*Benchmark")
+				.build()).run();
+	}
+
+}
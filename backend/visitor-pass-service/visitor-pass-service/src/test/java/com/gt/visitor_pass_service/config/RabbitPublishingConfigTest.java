@@ -0,0 +1,83 @@
+package com.gt.visitor_pass_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class RabbitPublishingConfigTest {
+
+	private static final String ROUTING_KEY = "pass.event.expired";
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private RabbitTemplate.ConfirmCallback confirmCallback;
+	private RabbitTemplate.ReturnsCallback returnsCallback;
+
+	@BeforeEach
+	void setUp() {
+		RabbitTemplate template = mock(RabbitTemplate.class);
+		new RabbitPublishingConfig().publishMetricsCustomizer(meterRegistry).customize(template);
+
+		ArgumentCaptor<RabbitTemplate.ConfirmCallback> confirm = ArgumentCaptor.forClass(RabbitTemplate.ConfirmCallback.class);
+		ArgumentCaptor<RabbitTemplate.ReturnsCallback> returns = ArgumentCaptor.forClass(RabbitTemplate.ReturnsCallback.class);
+		verify(template).setMandatory(true);
+		verify(template).setConfirmCallback(confirm.capture());
+		verify(template).setReturnsCallback(returns.capture());
+		confirmCallback = confirm.getValue();
+		returnsCallback = returns.getValue();
+	}
+
+	@Test
+	void ackIsTimedAsAck() {
+		confirmCallback.confirm(new PublishCorrelation("1", ROUTING_KEY, 1), true, null);
+
+		assertThat(latencyCount("ack")).isEqualTo(1);
+		assertThat(meterRegistry.find("amqp.publish.failures").counters()).isEmpty();
+	}
+
+	@Test
+	void nackCountsEveryMessageOfTheBatch() {
+		confirmCallback.confirm(new PublishCorrelation("1", ROUTING_KEY, 3), false, "overloaded");
+
+		assertThat(latencyCount("nack")).isEqualTo(1);
+		assertThat(meterRegistry.counter("amqp.publish.failures", "routingKey", ROUTING_KEY, "reason", "nack").count())
+				.isEqualTo(3);
+	}
+
+	@Test
+	void ackAfterAReturnIsTimedAsReturned() {
+		PublishCorrelation correlation = new PublishCorrelation("1", ROUTING_KEY, 1);
+		ReturnedMessage returned = new ReturnedMessage(new Message(new byte[0]), 312, "NO_ROUTE", "pass-events", ROUTING_KEY);
+		correlation.setReturned(returned);
+		returnsCallback.returnedMessage(returned);
+
+		confirmCallback.confirm(correlation, true, null);
+
+		assertThat(latencyCount("returned")).isEqualTo(1);
+		assertThat(latencyCount("ack")).isZero();
+		assertThat(meterRegistry.counter("amqp.publish.failures", "routingKey", ROUTING_KEY, "reason", "unroutable").count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void otherCorrelationDataIsIgnored() {
+		confirmCallback.confirm(new CorrelationData("1"), false, "overloaded");
+		confirmCallback.confirm(null, true, null);
+
+		assertThat(meterRegistry.getMeters()).isEmpty();
+	}
+
+	private long latencyCount(String outcome) {
+		var timer = meterRegistry.find("amqp.publish.latency").tags("routingKey", ROUTING_KEY, "outcome", outcome).timer();
+		return timer == null ? 0 : timer.count();
+	}
+}
@@ -0,0 +1,62 @@
+package com.gt.visitor_pass_service.config.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtClaimsCacheTest {
+
+	private static final long HOUR_MS = 3_600_000;
+
+	@Test
+	void fullCacheEvictsLeastRecentlyUsedToken() {
+		JwtClaimsCache cache = new JwtClaimsCache(2);
+		cache.put("a", claims("1", HOUR_MS));
+		cache.put("b", claims("2", HOUR_MS));
+		cache.get("a");
+
+		cache.put("c", claims("3", HOUR_MS));
+
+		assertThat(cache.get("a")).isNotNull();
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("c")).isNotNull();
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void newTokenIsCachedWhenFullOfLiveTokens() {
+		JwtClaimsCache cache = new JwtClaimsCache(3);
+		for (int i = 0; i < 10; i++) {
+			cache.put("token-" + i, claims(String.valueOf(i), HOUR_MS));
+		}
+
+		assertThat(cache.get("token-9")).extracting(Claims::getSubject).isEqualTo("9");
+		assertThat(cache.get("token-0")).isNull();
+		assertThat(cache.size()).isEqualTo(3);
+	}
+
+	@Test
+	void expiredTokenIsDropped() {
+		JwtClaimsCache cache = new JwtClaimsCache(2);
+		cache.put("expired", claims("1", -1000));
+
+		assertThat(cache.get("expired")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void zeroSizeDisablesCaching() {
+		JwtClaimsCache cache = new JwtClaimsCache(0);
+		cache.put("a", claims("1", HOUR_MS));
+
+		assertThat(cache.get("a")).isNull();
+	}
+
+	private static Claims claims(String subject, long expiresInMs) {
+		return Jwts.claims().subject(subject).expiration(new Date(System.currentTimeMillis() + expiresInMs)).build();
+	}
+}
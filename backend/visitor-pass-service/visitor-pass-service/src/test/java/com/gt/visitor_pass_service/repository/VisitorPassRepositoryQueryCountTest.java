@@ -0,0 +1,159 @@
+package com.gt.visitor_pass_service.repository;
+
+import com.gt.visitor_pass_service.dto.SecurityDashboardResponse;
+import com.gt.visitor_pass_service.model.Tenant;
+import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.VisitorPass;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements behind the pass listings, including what mapping the results to
+ * VisitorPassResponse touches, so a lazy association loaded per row shows up as a failure.
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:passes;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VisitorPassRepositoryQueryCountTest {
+
+	private static final int CREATORS = 5;
+	private static final int PASSES = 25;
+	private static final int PAGE_SIZE = 10;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private VisitorPassRepository passRepository;
+
+	private Statistics statistics;
+	private Tenant tenant;
+	private User firstCreator;
+	private LocalDateTime today;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		today = LocalDate.now().atTime(10, 0);
+
+		tenant = new Tenant();
+		tenant.setName("Acme");
+		entityManager.persist(tenant);
+
+		List<User> creators = new ArrayList<>();
+		for (int i = 0; i < CREATORS; i++) {
+			User user = new User();
+			user.setUniqueId("user-" + i);
+			user.setName("Employee " + i);
+			user.setEmail("employee" + i + "@acme.test");
+			user.setRole("ROLE_EMPLOYEE");
+			user.setTenant(tenant);
+			entityManager.persist(user);
+			creators.add(user);
+		}
+		firstCreator = creators.get(0);
+
+		for (int i = 0; i < PASSES; i++) {
+			VisitorPass pass = new VisitorPass();
+			pass.setTenant(tenant);
+			pass.setCreatedBy(creators.get(i % CREATORS));
+			pass.setVisitorName("Visitor " + i);
+			pass.setPassCode("CODE" + i);
+			pass.setStatus("APPROVED");
+			pass.setVisitDateTime(today);
+			pass.setCreatedAt(today.minusMinutes(i));
+			entityManager.persist(pass);
+		}
+		// Start every test from an empty persistence context, as a new request would
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+	}
+
+	@Test
+	void tenantPageIsOneSelectPlusCount() {
+		Page<VisitorPass> page = passRepository.findByTenantId(tenant.getId(), PageRequest.of(0, PAGE_SIZE));
+		page.forEach(this::mapToResponse);
+
+		assertThat(page.getContent()).hasSize(PAGE_SIZE);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void userHistoryPageIsOneSelectPlusCount() {
+		Page<VisitorPass> page = passRepository.findByCreatedById(firstCreator.getId(), PageRequest.of(0, PAGE_SIZE));
+		page.forEach(this::mapToResponse);
+
+		assertThat(page.getContent()).hasSize(PASSES / CREATORS);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void keysetSlicesAreOneSelectEach() {
+		Slice<VisitorPass> first = passRepository.findFirstSliceByTenantId(tenant.getId(), PageRequest.of(0, PAGE_SIZE));
+		first.forEach(this::mapToResponse);
+		VisitorPass last = first.getContent().get(first.getNumberOfElements() - 1);
+		Slice<VisitorPass> second = passRepository.findSliceByTenantIdBefore(
+				tenant.getId(), last.getCreatedAt(), last.getId(), PageRequest.of(0, PAGE_SIZE));
+		second.forEach(this::mapToResponse);
+
+		assertThat(first.hasNext()).isTrue();
+		assertThat(second.getContent()).hasSize(PAGE_SIZE);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void recentPassesAreOneSelect() {
+		List<VisitorPass> recent = passRepository.findTop10ByTenantIdOrderByCreatedAtDesc(tenant.getId());
+		recent.forEach(this::mapToResponse);
+
+		assertThat(recent).hasSize(10);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void todaysVisitorsAreOneSelect() {
+		List<SecurityDashboardResponse> visitors = passRepository.findTodaysVisitorsByTenant(
+				tenant.getId(), today.toLocalDate().atStartOfDay(), today.toLocalDate().plusDays(1).atStartOfDay());
+
+		assertThat(visitors).hasSize(PASSES);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void withoutTheFetchEveryDistinctCreatorCostsASelect() {
+		// Guards the test itself: a plain findAll leaves the creators lazy, and mapping loads each one
+		List<VisitorPass> passes = passRepository.findAll();
+		passes.forEach(this::mapToResponse);
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + CREATORS);
+	}
+
+	// Touches the same associations as VisitorPassService.mapToResponse
+	private void mapToResponse(VisitorPass pass) {
+		assertThat(pass.getTenant().getId()).isEqualTo(tenant.getId());
+		assertThat(pass.getCreatedBy().getName()).startsWith("Employee ");
+	}
+}
@@ -0,0 +1,127 @@
+package com.gt.visitor_pass_service.repository;
+
+import com.gt.visitor_pass_service.model.Tenant;
+import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.VisitorPass;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walks the keyset-paginated listings to the end, the way VisitorPassService follows its cursors,
+ * over passes that share timestamps and legacy passes without one.
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:slices;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VisitorPassRepositorySliceTest {
+
+	private static final Pageable SLICE = PageRequest.of(0, 4);
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private VisitorPassRepository passRepository;
+
+	private Tenant tenant;
+	private User creator;
+	private final List<Long> newestFirst = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		tenant = new Tenant();
+		tenant.setName("Acme");
+		entityManager.persist(tenant);
+
+		creator = new User();
+		creator.setUniqueId("user-1");
+		creator.setName("Employee");
+		creator.setEmail("employee@acme.test");
+		creator.setTenant(tenant);
+		entityManager.persist(creator);
+
+		LocalDateTime base = LocalDateTime.of(2024, 5, 1, 9, 0);
+		List<VisitorPass> dated = new ArrayList<>();
+		List<VisitorPass> undated = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			// Pairs of passes share a timestamp, so slices must split ties on id
+			dated.add(persist(base.plusMinutes(i / 2)));
+		}
+		for (int i = 0; i < 5; i++) {
+			undated.add(persist(null));
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		dated.sort((a, b) -> a.getCreatedAt().equals(b.getCreatedAt())
+				? b.getId().compareTo(a.getId())
+				: b.getCreatedAt().compareTo(a.getCreatedAt()));
+		undated.sort((a, b) -> b.getId().compareTo(a.getId()));
+		dated.forEach(pass -> newestFirst.add(pass.getId()));
+		undated.forEach(pass -> newestFirst.add(pass.getId()));
+	}
+
+	@Test
+	void tenantSlicesVisitEveryPassOnceInOrder() {
+		List<Long> visited = new ArrayList<>();
+		Slice<VisitorPass> slice = passRepository.findFirstSliceByTenantId(tenant.getId(), SLICE);
+		while (true) {
+			slice.forEach(pass -> visited.add(pass.getId()));
+			if (!slice.hasNext()) {
+				break;
+			}
+			VisitorPass last = slice.getContent().get(slice.getNumberOfElements() - 1);
+			slice = last.getCreatedAt() == null
+					? passRepository.findUndatedSliceByTenantIdBefore(tenant.getId(), last.getId(), SLICE)
+					: passRepository.findSliceByTenantIdBefore(tenant.getId(), last.getCreatedAt(), last.getId(), SLICE);
+		}
+
+		assertThat(visited).containsExactlyElementsOf(newestFirst);
+	}
+
+	@Test
+	void creatorSlicesVisitEveryPassOnceInOrder() {
+		List<Long> visited = new ArrayList<>();
+		Slice<VisitorPass> slice = passRepository.findFirstSliceByCreatedById(creator.getId(), SLICE);
+		while (true) {
+			slice.forEach(pass -> visited.add(pass.getId()));
+			if (!slice.hasNext()) {
+				break;
+			}
+			VisitorPass last = slice.getContent().get(slice.getNumberOfElements() - 1);
+			slice = last.getCreatedAt() == null
+					? passRepository.findUndatedSliceByCreatedByIdBefore(creator.getId(), last.getId(), SLICE)
+					: passRepository.findSliceByCreatedByIdBefore(creator.getId(), last.getCreatedAt(), last.getId(), SLICE);
+		}
+
+		assertThat(visited).containsExactlyElementsOf(newestFirst);
+	}
+
+	private VisitorPass persist(LocalDateTime createdAt) {
+		VisitorPass pass = new VisitorPass();
+		pass.setTenant(tenant);
+		pass.setCreatedBy(creator);
+		pass.setVisitorName("Visitor");
+		pass.setStatus("APPROVED");
+		pass.setCreatedAt(createdAt);
+		return entityManager.persist(pass);
+	}
+}
@@ -0,0 +1,257 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.config.PublishCorrelation;
+import com.gt.visitor_pass_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+	private static final String EXCHANGE = "pass-events";
+	private static final String EXPIRED = "pass.event.expired";
+	private static final String CREATED = "pass.event.created";
+	private static final String MARK_PUBLISHED = "UPDATE outbox_events SET published_at";
+	private static final String MARK_FAILED = "UPDATE outbox_events SET attempts";
+	private static final int MAX_ATTEMPTS = 10;
+	private static final long RETRY_BACKOFF_MS = 1000;
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	// What the broker does with each publish, keyed by correlation id (the id of its first event)
+	private final Map<String, Consumer<PublishCorrelation>> replies = new HashMap<>();
+	private final List<Message> sent = new ArrayList<>();
+	private final List<PublishCorrelation> correlations = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		doAnswer(invocation -> {
+			Message message = invocation.getArgument(2);
+			PublishCorrelation correlation = invocation.getArgument(3);
+			sent.add(message);
+			correlations.add(correlation);
+			replies.getOrDefault(correlation.getId(), OutboxRelayTest::ack).accept(correlation);
+			return null;
+		}).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+	}
+
+	@Test
+	void confirmedEventsAreMarkedPublished() throws SQLException {
+		pending(row(1, CREATED, 0), row(2, CREATED, 0), row(3, EXPIRED, 0));
+
+		relay(false, 1000).relayPendingEvents();
+
+		assertThat(sent).extracting(message -> message.getMessageProperties().getMessageId()).containsExactly("1", "2", "3");
+		assertThat(sent.get(0).getMessageProperties().getTimestamp()).isNotNull();
+		assertThat(ids(updates(MARK_PUBLISHED))).containsExactly(1L, 2L, 3L);
+		verify(jdbcTemplate, never()).batchUpdate(startsWith(MARK_FAILED), anyList());
+		assertThat(meterRegistry.counter("outbox.relay.published").count()).isEqualTo(3);
+	}
+
+	@Test
+	void nackedAndReturnedEventsAreRetriedWithBackoff() throws SQLException {
+		pending(row(1, CREATED, 0), row(2, CREATED, 0), row(3, CREATED, 2));
+		replies.put("2", correlation -> correlation.getFuture().complete(new CorrelationData.Confirm(false, "overloaded")));
+		replies.put("3", OutboxRelayTest::returnAsUnroutable);
+
+		LocalDateTime before = LocalDateTime.now();
+		relay(false, 1000).relayPendingEvents();
+		LocalDateTime after = LocalDateTime.now();
+
+		assertThat(ids(updates(MARK_PUBLISHED))).containsExactly(1L);
+		List<Object[]> failed = updates(MARK_FAILED);
+		assertThat(ids(failed)).containsExactly(2L, 3L);
+
+		Object[] nacked = failed.get(0);
+		assertThat(nacked[0]).isEqualTo("Nacked by broker: overloaded");
+		assertThat(((Timestamp) nacked[1]).toLocalDateTime())
+				.isBetween(before.plus(Duration.ofMillis(RETRY_BACKOFF_MS)), after.plus(Duration.ofMillis(RETRY_BACKOFF_MS)));
+		assertThat(nacked[2]).isNull();
+
+		// Third attempt: the backoff has doubled twice
+		Object[] returned = failed.get(1);
+		assertThat(returned[0]).isEqualTo("Returned as unroutable: NO_ROUTE");
+		assertThat(((Timestamp) returned[1]).toLocalDateTime())
+				.isBetween(before.plus(Duration.ofMillis(4 * RETRY_BACKOFF_MS)), after.plus(Duration.ofMillis(4 * RETRY_BACKOFF_MS)));
+		assertThat(returned[2]).isNull();
+		assertThat(meterRegistry.counter("outbox.relay.failed").count()).isEqualTo(2);
+	}
+
+	@Test
+	void eventIsParkedOnItsLastAttempt() throws SQLException {
+		pending(row(1, CREATED, MAX_ATTEMPTS - 1));
+		replies.put("1", OutboxRelayTest::returnAsUnroutable);
+
+		relay(false, 1000).relayPendingEvents();
+
+		Object[] parked = updates(MARK_FAILED).get(0);
+		assertThat(parked[1]).isNull();
+		assertThat(parked[2]).isNotNull();
+		assertThat(meterRegistry.counter("outbox.relay.parked").count()).isEqualTo(1);
+	}
+
+	@Test
+	void unconfirmedEventsTimeOut() throws SQLException {
+		pending(row(1, CREATED, 0), row(2, CREATED, 0));
+		replies.put("2", correlation -> {
+			// Never confirmed
+		});
+
+		relay(false, 50).relayPendingEvents();
+
+		assertThat(ids(updates(MARK_PUBLISHED))).containsExactly(1L);
+		List<Object[]> failed = updates(MARK_FAILED);
+		assertThat(ids(failed)).containsExactly(2L);
+		assertThat(failed.get(0)[0]).isEqualTo("Publisher confirm timed out");
+	}
+
+	@Test
+	void sendErrorStopsTheBatch() throws SQLException {
+		pending(row(1, CREATED, 0), row(2, CREATED, 0));
+		doAnswer(invocation -> {
+			throw new AmqpException("Connection refused");
+		}).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+		relay(false, 1000).relayPendingEvents();
+
+		// The second event is left pending rather than charged an attempt
+		List<Object[]> failed = updates(MARK_FAILED);
+		assertThat(ids(failed)).containsExactly(1L);
+		assertThat(failed.get(0)[0]).isEqualTo("Connection refused");
+		verify(jdbcTemplate, never()).batchUpdate(startsWith(MARK_PUBLISHED), anyList());
+		assertThat(meterRegistry.counter("amqp.publish.failures", "routingKey", CREATED, "reason", "send_error").count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void batchedRoutingKeyIsPackedWithOneConfirmPerBatch() throws SQLException {
+		pending(row(1, EXPIRED, 0), row(2, EXPIRED, 0), row(3, CREATED, 0),
+				row(4, EXPIRED, 0), row(5, EXPIRED, 0), row(6, EXPIRED, 0));
+
+		relay(true, 1000).relayPendingEvents();
+
+		// Unbatched events first, then the batches in id order, at most two events each
+		assertThat(correlations).extracting(CorrelationData::getId).containsExactly("3", "1", "4", "6");
+		assertThat(correlations).extracting(PublishCorrelation::getMessageCount).containsExactly(1, 2, 2, 1);
+		assertThat(correlations).extracting(PublishCorrelation::getRoutingKey).containsExactly(CREATED, EXPIRED, EXPIRED, EXPIRED);
+		assertThat(debatch(sent.get(1))).containsExactly(payload(1), payload(2));
+		assertThat(debatch(sent.get(2))).containsExactly(payload(4), payload(5));
+		// A batch of one is sent as a plain message
+		assertThat(sent.get(3).getMessageProperties().getMessageId()).isEqualTo("6");
+		assertThat(ids(updates(MARK_PUBLISHED))).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L);
+	}
+
+	@Test
+	void nackedBatchFailsEveryEventInIt() throws SQLException {
+		pending(row(1, EXPIRED, 0), row(2, EXPIRED, 0), row(3, EXPIRED, 0));
+		replies.put("1", correlation -> correlation.getFuture().complete(new CorrelationData.Confirm(false, "overloaded")));
+
+		relay(true, 1000).relayPendingEvents();
+
+		assertThat(ids(updates(MARK_FAILED))).containsExactly(1L, 2L);
+		assertThat(ids(updates(MARK_PUBLISHED))).containsExactly(3L);
+	}
+
+	private OutboxRelay relay(boolean batching, long confirmTimeoutMs) {
+		return new OutboxRelay(jdbcTemplate, rabbitTemplate, mock(OutboxEventRepository.class), transactionManager, meterRegistry,
+				200, confirmTimeoutMs, 7, batching, Set.of(EXPIRED), 2, 262144, MAX_ATTEMPTS, RETRY_BACKOFF_MS, 300000);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void pending(ResultSet... rows) {
+		when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+			RowMapper<Object> mapper = invocation.getArgument(1);
+			List<Object> mapped = new ArrayList<>();
+			for (int i = 0; i < rows.length; i++) {
+				mapped.add(mapper.mapRow(rows[i], i));
+			}
+			return mapped;
+		});
+	}
+
+	private static ResultSet row(long id, String routingKey, int attempts) throws SQLException {
+		ResultSet row = mock(ResultSet.class);
+		when(row.getLong("id")).thenReturn(id);
+		when(row.getString("exchange")).thenReturn(EXCHANGE);
+		when(row.getString("routing_key")).thenReturn(routingKey);
+		when(row.getString("payload")).thenReturn(payload(id));
+		when(row.getString("payload_type")).thenReturn("com.gt.visitor_pass_service.dto.PassEvent");
+		when(row.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+		when(row.getInt("attempts")).thenReturn(attempts);
+		return row;
+	}
+
+	private static String payload(long id) {
+		return "{\"passId\":" + id + "}";
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private List<Object[]> updates(String sqlPrefix) {
+		ArgumentCaptor<List<Object[]>> rows = (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(startsWith(sqlPrefix), rows.capture());
+		return rows.getValue();
+	}
+
+	// The outbox id is the last parameter of both updates
+	private static List<Long> ids(List<Object[]> rows) {
+		return rows.stream().map(row -> (Long) row[row.length - 1]).toList();
+	}
+
+	private static List<String> debatch(Message message) {
+		SimpleBatchingStrategy strategy = new SimpleBatchingStrategy(0, 0, 0L);
+		assertThat(strategy.canDebatch(message.getMessageProperties())).isTrue();
+		List<String> payloads = new ArrayList<>();
+		strategy.deBatch(message, fragment -> payloads.add(new String(fragment.getBody(), StandardCharsets.UTF_8)));
+		return payloads;
+	}
+
+	private static void ack(PublishCorrelation correlation) {
+		correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+	}
+
+	// As the broker does it: the return arrives before the confirm, which is still an ack
+	private static void returnAsUnroutable(PublishCorrelation correlation) {
+		correlation.setReturned(new ReturnedMessage(new Message(new byte[0]), 312, "NO_ROUTE", EXCHANGE, correlation.getRoutingKey()));
+		ack(correlation);
+	}
+}
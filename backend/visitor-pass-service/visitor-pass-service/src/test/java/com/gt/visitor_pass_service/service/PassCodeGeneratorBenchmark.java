@@ -0,0 +1,68 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Pass-code generation and validation throughput, without the database: the uniqueness lookup
+ * is stubbed, so this measures the random source, the encoding and the check character.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PassCodeGeneratorBenchmark {
+
+	private PassCodeGenerator generator;
+	private String scannedCode;
+
+	@Setup
+	public void setUp() {
+		VisitorPassRepository passRepository = mock(VisitorPassRepository.class, withSettings().stubOnly());
+		when(passRepository.findExistingPassCodes(anyLong(), any())).thenReturn(List.of());
+		generator = new PassCodeGenerator(passRepository, 9);
+		String code = generator.nextCode(1L);
+		scannedCode = code.substring(0, 4).toLowerCase() + "-" + code.substring(4);
+	}
+
+	@Benchmark
+	public String nextCode() {
+		return generator.nextCode(1L);
+	}
+
+	// ThreadLocal random sources: throughput should scale with threads instead of contending
+	@Benchmark
+	@Threads(4)
+	public String nextCodeFourThreads() {
+		return generator.nextCode(1L);
+	}
+
+	@Benchmark
+	public List<String> nextCodesBlockOf500() {
+		return generator.nextCodes(1L, 500);
+	}
+
+	@Benchmark
+	public boolean normalizeAndCheck() {
+		return generator.passesCheck(PassCodeGenerator.normalize(scannedCode));
+	}
+}
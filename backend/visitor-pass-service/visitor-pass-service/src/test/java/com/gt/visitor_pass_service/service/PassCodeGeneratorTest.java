@@ -0,0 +1,179 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class PassCodeGeneratorTest {
+
+	private static final String ALPHABET = PassCodeGenerator.ALPHABET;
+
+	// Stub only: the collision tests make hundreds of thousands of calls that need not be recorded
+	private final VisitorPassRepository passRepository = mock(VisitorPassRepository.class, withSettings().stubOnly());
+	private final PassCodeGenerator generator = new PassCodeGenerator(passRepository, 9);
+
+	@Test
+	void checkCharacterMatchesLuhnModN() {
+		assertThat(PassCodeGenerator.checkCharacter("000000000")).isEqualTo('0');
+		assertThat(PassCodeGenerator.checkCharacter("012345678")).isEqualTo('8');
+		assertThat(PassCodeGenerator.checkCharacter("ABCDEFGHJ")).isEqualTo('T');
+		assertThat(PassCodeGenerator.checkCharacter("ZZZZZZZZZ")).isEqualTo('9');
+	}
+
+	@Test
+	void checkCharacterCatchesEverySingleCharacterMistake() {
+		String payload = "7K3M9Q2XW";
+		char check = PassCodeGenerator.checkCharacter(payload);
+		for (int position = 0; position < payload.length(); position++) {
+			for (char replacement : ALPHABET.toCharArray()) {
+				if (replacement == payload.charAt(position)) {
+					continue;
+				}
+				String mistyped = payload.substring(0, position) + replacement + payload.substring(position + 1);
+				assertThat(PassCodeGenerator.checkCharacter(mistyped)).as(mistyped).isNotEqualTo(check);
+			}
+		}
+	}
+
+	@Test
+	void checkCharacterCatchesAdjacentTranspositionsExceptZeroAndZ() {
+		for (char a : ALPHABET.toCharArray()) {
+			for (char b : ALPHABET.toCharArray()) {
+				if (a == b) {
+					continue;
+				}
+				String payload = "7K3" + a + b + "Q2XW";
+				String swapped = "7K3" + b + a + "Q2XW";
+				boolean undetectable = (a == '0' && b == 'Z') || (a == 'Z' && b == '0');
+				assertThat(PassCodeGenerator.checkCharacter(payload) == PassCodeGenerator.checkCharacter(swapped))
+						.as(payload + " / " + swapped)
+						.isEqualTo(undetectable);
+			}
+		}
+	}
+
+	@Test
+	void normalizeUppercasesStripsSeparatorsAndMapsLookAlikes() {
+		assertThat(PassCodeGenerator.normalize("ab12-cd34 ef")).isEqualTo("AB12CD34EF");
+		assertThat(PassCodeGenerator.normalize("o0-Il-i")).isEqualTo("00111");
+		assertThat(PassCodeGenerator.normalize("")).isEmpty();
+	}
+
+	@Test
+	void passesCheckAcceptsGeneratedCodes() {
+		when(passRepository.findExistingPassCodes(anyLong(), any())).thenReturn(List.of());
+
+		for (String code : generator.nextCodes(1L, 500)) {
+			assertThat(code).hasSize(10);
+			assertThat(generator.passesCheck(code)).as(code).isTrue();
+		}
+	}
+
+	@Test
+	void passesCheckRejectsAWrongCheckCharacter() {
+		String payload = "7K3M9Q2XW";
+		char check = PassCodeGenerator.checkCharacter(payload);
+		char wrong = ALPHABET.charAt((ALPHABET.indexOf(check) + 1) % ALPHABET.length());
+
+		assertThat(generator.passesCheck(payload + check)).isTrue();
+		assertThat(generator.passesCheck(payload + wrong)).isFalse();
+	}
+
+	@Test
+	void passesCheckDoesNotJudgeCodesOfAnotherShape() {
+		// Other lengths and characters outside the alphabet (e.g. older codes) go to the lookup as they are
+		assertThat(generator.passesCheck("ABC123")).isTrue();
+		assertThat(generator.passesCheck("7K3M9Q2XWUU")).isTrue();
+		assertThat(generator.passesCheck("7K3M9Q2XWU")).isTrue();
+	}
+
+	@Test
+	void nextCodesReplacesCodesTheTenantAlreadyUses() {
+		Set<String> firstBlock = new HashSet<>();
+		when(passRepository.findExistingPassCodes(anyLong(), any())).thenAnswer(invocation -> {
+			Collection<String> candidates = invocation.getArgument(1);
+			if (firstBlock.isEmpty()) {
+				firstBlock.addAll(candidates);
+				// Pretend two of the first candidates are taken
+				return candidates.stream().limit(2).toList();
+			}
+			return List.of();
+		});
+
+		List<String> codes = generator.nextCodes(1L, 10);
+
+		assertThat(codes).hasSize(10).doesNotHaveDuplicates();
+		assertThat(firstBlock.stream().filter(codes::contains)).hasSize(8);
+	}
+
+	@Test
+	void nextCodesGivesUpWhenEveryCandidateIsTaken() {
+		VisitorPassRepository repository = mock(VisitorPassRepository.class);
+		when(repository.findExistingPassCodes(anyLong(), any()))
+				.thenAnswer(invocation -> List.copyOf(invocation.<Collection<String>>getArgument(1)));
+		PassCodeGenerator saturated = new PassCodeGenerator(repository, 9);
+
+		assertThatIllegalStateException().isThrownBy(() -> saturated.nextCodes(1L, 3));
+		verify(repository, times(5)).findExistingPassCodes(anyLong(), any());
+	}
+
+	@Test
+	void rejectsUnsupportedPayloadLengths() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new PassCodeGenerator(passRepository, 3));
+		assertThatIllegalArgumentException().isThrownBy(() -> new PassCodeGenerator(passRepository, 13));
+	}
+
+	/**
+	 * With 9 random base32 characters there are 32^9 (about 3.5e13) payloads, so by the birthday bound
+	 * 200,000 codes collide with probability n^2 / 2N, about 0.06%. A collision here means the
+	 * payload is not using its full entropy.
+	 */
+	@Test
+	void independentlyGeneratedCodesDoNotCollide() {
+		when(passRepository.findExistingPassCodes(anyLong(), any())).thenReturn(List.of());
+		int count = 200_000;
+		Set<String> codes = new HashSet<>(count * 2);
+		for (int i = 0; i < count; i++) {
+			codes.add(generator.nextCode(1L));
+		}
+		assertThat(count - codes.size()).isLessThanOrEqualTo(1);
+	}
+
+	/**
+	 * With the shortest payload (32^4 = 1,048,576 values) collisions are frequent enough to measure:
+	 * 5,000 codes are expected to contain about n(n-1) / 2N = 11.9 duplicate pairs. Far fewer means
+	 * the generator is not random, far more means it only uses part of the space.
+	 */
+	@Test
+	void collisionRateMatchesTheBirthdayBound() {
+		when(passRepository.findExistingPassCodes(anyLong(), any())).thenReturn(List.of());
+		PassCodeGenerator shortCodes = new PassCodeGenerator(passRepository, 4);
+		int count = 5_000;
+		int runs = 20;
+		int duplicates = 0;
+		for (int run = 0; run < runs; run++) {
+			Set<String> codes = new HashSet<>();
+			for (int i = 0; i < count; i++) {
+				codes.add(shortCodes.nextCode(1L));
+			}
+			duplicates += count - codes.size();
+		}
+		double expected = (double) count * (count - 1) / 2 / Math.pow(32, 4);
+		assertThat(duplicates / (double) runs).isBetween(expected * 0.6, expected * 1.4);
+	}
+}
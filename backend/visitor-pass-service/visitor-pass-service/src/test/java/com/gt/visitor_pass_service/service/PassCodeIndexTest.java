@@ -0,0 +1,148 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.model.Tenant;
+import com.gt.visitor_pass_service.model.User;
+import com.gt.visitor_pass_service.model.VisitorPass;
+import com.gt.visitor_pass_service.repository.TenantRepository;
+import com.gt.visitor_pass_service.repository.VisitorPassRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PassCodeIndexTest {
+
+	private static final Long TENANT_ID = 1L;
+
+	private final VisitorPassRepository passRepository = mock(VisitorPassRepository.class);
+	private final TenantRepository tenantRepository = mock(TenantRepository.class);
+	private final TenantCalendarService tenantCalendarService = mock(TenantCalendarService.class);
+	private final PassCodeIndex index = new PassCodeIndex(passRepository, tenantRepository, tenantCalendarService,
+			new SimpleMeterRegistry(), 0); // No maximum age: every refresh reloads
+	private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+	@BeforeEach
+	void setUp() {
+		when(tenantRepository.findAllIds()).thenReturn(List.of(TENANT_ID));
+		when(tenantCalendarService.getZone(TENANT_ID)).thenReturn(ZoneOffset.UTC);
+		when(tenantCalendarService.today(TENANT_ID)).thenReturn(TenantCalendarService.DayRange.of(today));
+	}
+
+	@Test
+	void loadedPassesAreFoundByNormalizedCode() {
+		scannable(row(10L, "ABCD-2345", "APPROVED"));
+
+		index.refreshStaleTenants();
+
+		assertThat(index.find(TENANT_ID, "abcd 2345")).map(PassCodeIndex.IndexedPass::id).contains(10L);
+		assertThat(index.find(TENANT_ID, "ZZZZ2345")).isEmpty();
+	}
+
+	@Test
+	void checkOutDuringReloadIsNotUndoneBySnapshot() {
+		scannable(row(10L, "ABCD2345", "CHECKED_IN"));
+		index.refreshStaleTenants();
+
+		// The reload's query reads the pass just before it is checked out, and the check-out commits before the swap
+		when(passRepository.findScannablePasses(eq(TENANT_ID), any(), any())).thenAnswer(invocation -> {
+			index.statusChanged(pass(10L, "ABCD2345", "CHECKED_OUT"));
+			return List.of(row(10L, "ABCD2345", "CHECKED_IN"));
+		});
+		index.refreshStaleTenants();
+
+		assertThat(index.find(TENANT_ID, "ABCD2345")).isEmpty();
+	}
+
+	@Test
+	void approvalDuringReloadIsKept() {
+		scannable();
+		index.refreshStaleTenants();
+
+		when(passRepository.findScannablePasses(eq(TENANT_ID), any(), any())).thenAnswer(invocation -> {
+			index.statusChanged(pass(11L, "WXYZ6789", "APPROVED"));
+			return List.of();
+		});
+		index.refreshStaleTenants();
+
+		assertThat(index.find(TENANT_ID, "WXYZ6789")).map(PassCodeIndex.IndexedPass::status).contains("APPROVED");
+	}
+
+	@Test
+	void transitionAfterReloadIsApplied() {
+		scannable(row(10L, "ABCD2345", "APPROVED"));
+		index.refreshStaleTenants();
+
+		index.statusChanged(pass(10L, "ABCD2345", "CHECKED_IN"));
+
+		assertThat(index.find(TENANT_ID, "ABCD2345")).map(PassCodeIndex.IndexedPass::status).contains("CHECKED_IN");
+	}
+
+	@Test
+	void staleOfferDoesNotUndoCheckIn() {
+		scannable();
+		index.refreshStaleTenants();
+
+		// A scan misses and reads the pass as APPROVED; a check-in commits before the read is offered
+		VisitorPass readAfterMiss = pass(12L, "MNPQ2345", "APPROVED");
+		index.statusChanged(pass(12L, "MNPQ2345", "CHECKED_IN"));
+		index.offer(readAfterMiss);
+
+		assertThat(index.find(TENANT_ID, "MNPQ2345")).map(PassCodeIndex.IndexedPass::status).contains("CHECKED_IN");
+	}
+
+	@Test
+	void offerAddsMissingPassAndRemovesFinishedOne() {
+		scannable(row(10L, "ABCD2345", "CHECKED_IN"));
+		index.refreshStaleTenants();
+
+		index.offer(pass(12L, "MNPQ2345", "APPROVED"));
+		index.offer(pass(10L, "ABCD2345", "CHECKED_OUT"));
+
+		assertThat(index.find(TENANT_ID, "MNPQ2345")).map(PassCodeIndex.IndexedPass::status).contains("APPROVED");
+		assertThat(index.find(TENANT_ID, "ABCD2345")).isEmpty();
+	}
+
+	private void scannable(VisitorPassRepository.ScannablePass... rows) {
+		when(passRepository.findScannablePasses(eq(TENANT_ID), any(), any())).thenReturn(List.of(rows));
+	}
+
+	private VisitorPass pass(Long id, String passCode, String status) {
+		Tenant tenant = new Tenant();
+		tenant.setId(TENANT_ID);
+		User creator = new User();
+		creator.setName("Employee");
+		VisitorPass pass = new VisitorPass();
+		pass.setId(id);
+		pass.setTenant(tenant);
+		pass.setCreatedBy(creator);
+		pass.setPassCode(passCode);
+		pass.setStatus(status);
+		pass.setVisitorName("Visitor " + id);
+		pass.setVisitDateTime(today.atTime(10, 0));
+		return pass;
+	}
+
+	private VisitorPassRepository.ScannablePass row(Long id, String passCode, String status) {
+		LocalDateTime visit = today.atTime(10, 0);
+		return new VisitorPassRepository.ScannablePass() {
+			@Override public Long getId() { return id; }
+			@Override public String getPassCode() { return passCode; }
+			@Override public String getVisitorName() { return "Visitor " + id; }
+			@Override public String getVisitorEmail() { return null; }
+			@Override public String getPurpose() { return null; }
+			@Override public String getStatus() { return status; }
+			@Override public LocalDateTime getVisitDateTime() { return visit; }
+			@Override public String getCreatedByName() { return "Employee"; }
+		};
+	}
+}
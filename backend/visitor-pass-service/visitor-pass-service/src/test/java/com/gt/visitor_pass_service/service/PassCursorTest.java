@@ -0,0 +1,47 @@
+package com.gt.visitor_pass_service.service;
+
+import com.gt.visitor_pass_service.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PassCursorTest {
+
+	@Test
+	void roundTripsTimestampAndId() {
+		PassCursor cursor = new PassCursor(LocalDateTime.of(2024, 5, 1, 9, 30, 15, 123_456_000), 42L);
+
+		assertThat(PassCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void roundTripsMissingTimestamp() {
+		PassCursor cursor = new PassCursor(null, 7L);
+
+		assertThat(PassCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void tokenIsUrlSafe() {
+		String token = new PassCursor(LocalDateTime.of(2024, 5, 1, 9, 30), Long.MAX_VALUE).encode();
+
+		assertThat(token).matches("[A-Za-z0-9_-]+");
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		assertThatThrownBy(() -> PassCursor.decode("not base64!")).isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> PassCursor.decode(encode("2024-05-01T09:30"))).isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> PassCursor.decode(encode("yesterday|1"))).isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> PassCursor.decode(encode("2024-05-01T09:30|x"))).isInstanceOf(BadRequestException.class);
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}